@@ -0,0 +1,96 @@
+package com.kopo.vita.loganalysis.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kopo.vita.loganalysis.dto.LogEventDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Loki query_range 응답 1000줄 (스트림 2개, 시스템 메트릭 20% / GC 20% / 그 외 애플리케이션 로그 60%) 분류.
+ * - candidates: readLokiEvents (리터럴 사전 필터 후 미리 컴파일한 정규식)
+ * - allLines: 사전 필터 없이 모든 라인을 classify
+ * - compilePerCall: 기존 방식 (트리 파싱, 호출마다 패턴 컴파일, 라인마다 replaceAll 후 정규식)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LogFormatterBenchmark {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private byte[] batch;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = LogFormatterBenchmark.class.getResourceAsStream("/loki/batch-1000.json")) {
+            batch = Objects.requireNonNull(in, "loki/batch-1000.json").readAllBytes();
+        }
+    }
+
+    @Benchmark
+    public List<LogEventDTO> candidates() throws IOException {
+        return LogFormatter.readLokiEvents(new ByteArrayInputStream(batch), mapper);
+    }
+
+    @Benchmark
+    public List<LogEventDTO> allLines() throws IOException {
+        List<LogEventDTO> events = new ArrayList<>();
+        LogFormatter.readLokiEntries(new ByteArrayInputStream(batch), mapper, (labels, stream, ns, line) -> {
+            LogEventDTO event = LogFormatter.classify(Instant.ofEpochMilli(ns / 1_000_000), stream, line);
+            if (event != null) {
+                events.add(event);
+            }
+        });
+        return events;
+    }
+
+    @Benchmark
+    public List<Map<String, String>> compilePerCall() throws IOException {
+        Pattern metricPattern = Pattern.compile(
+                "CPU 부하:\\s*([\\d.]+),\\s*JVM 메모리:\\s*([\\d.]+)%,.*?스레드 수:\\s*(\\d+),\\s*프로세서 수:\\s*(\\d+),.*?디스크:\\s*[^:]+:\\s*([\\d.]+)%"
+        );
+        Pattern gcPattern = Pattern.compile(
+                "\\[(?<uptime>[\\d.]+s)]\\[info.+?] GC\\((?<id>\\d+)\\) (?<type>[^\\[]+)\\s*(?<detail>.+)"
+        );
+        List<Map<String, String>> out = new ArrayList<>();
+        for (JsonNode stream : mapper.readTree(batch).path("data").path("result")) {
+            String app = stream.path("stream").path("app").asText();
+            for (JsonNode value : stream.path("values")) {
+                String line = value.get(1).asText().replaceAll("[\\r\\n]", "");
+                Matcher m1 = metricPattern.matcher(line);
+                if (m1.find()) {
+                    Map<String, String> row = new LinkedHashMap<>();
+                    row.put("timestamp", value.get(0).asText());
+                    row.put("app", app);
+                    row.put("cpuLoad", m1.group(1));
+                    row.put("jvmMemory", m1.group(2));
+                    row.put("threadCount", m1.group(3));
+                    row.put("processorCount", m1.group(4));
+                    row.put("diskUsage", m1.group(5));
+                    out.add(row);
+                    continue;
+                }
+                Matcher m2 = gcPattern.matcher(line);
+                if (m2.find()) {
+                    Map<String, String> row = new LinkedHashMap<>();
+                    row.put("timestamp", value.get(0).asText());
+                    row.put("app", app);
+                    row.put("gcUptime", m2.group("uptime"));
+                    row.put("gcId", m2.group("id"));
+                    row.put("gcType", m2.group("type").trim());
+                    row.put("gcDetail", m2.group("detail").trim());
+                    out.add(row);
+                }
+            }
+        }
+        return out;
+    }
+}
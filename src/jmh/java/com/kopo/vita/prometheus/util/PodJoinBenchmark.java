@@ -0,0 +1,155 @@
+package com.kopo.vita.prometheus.util;
+
+import com.kopo.vita.prometheus.dto.PodDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 파드 상세 목록 조인: PodMetricTable(행 번호 + double[] 컬럼) vs (namespace → pod → 값) 중첩 맵 (기존 방식).
+ * 입력은 이미 파싱된 시리즈 (지표마다 응답 순서가 다르도록 섞음), 결과는 둘 다 PodDTO 목록.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PodJoinBenchmark {
+
+    private static final String[] METRICS = {"cpu", "memory", "netTx", "netRx", "created", "restarts", "crash"};
+    private static final int[] TABLE_COLUMNS = {
+            PodMetricTable.CPU, PodMetricTable.MEMORY, PodMetricTable.NET_TX, PodMetricTable.NET_RX,
+            PodMetricTable.CREATED, PodMetricTable.RESTARTS, PodMetricTable.CRASH
+    };
+    private static final String[] PHASES = {"Pending", "Running", "Succeeded", "Failed", "Unknown"};
+
+    /** 파싱된 시리즈 하나 (라벨 문자열은 응답마다 따로 만들어짐) */
+    private record Sample(String namespace, String pod, String phase, double value) {
+    }
+
+    @Param({"10000"})
+    int pods;
+
+    private List<PodDTO> infos;
+    // METRICS 순서의 지표별 시리즈
+    private List<List<Sample>> metrics;
+    private List<Sample> phases;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        infos = new ArrayList<>(pods);
+        for (int i = 0; i < pods; i++) {
+            infos.add(PodDTO.builder()
+                    .podName("app-" + i).podId("uid-" + i).nameSpace("ns-" + (i % 50))
+                    .nodeName("node-" + (i % 20)).uid("uid-" + i)
+                    .build());
+        }
+        metrics = new ArrayList<>();
+        for (String metric : METRICS) {
+            List<Sample> samples = new ArrayList<>(pods);
+            for (int i = 0; i < pods; i++) {
+                // crash 는 일부 파드에만 시리즈가 있음
+                if ("crash".equals(metric) && i % 100 != 0) {
+                    continue;
+                }
+                double value = "created".equals(metric) ? 1_700_000_000 + i : random.nextDouble() * 100;
+                samples.add(new Sample(new String("ns-" + (i % 50)), new String("app-" + i), null, value));
+            }
+            Collections.shuffle(samples, random);
+            metrics.add(samples);
+        }
+        phases = new ArrayList<>(pods * PHASES.length);
+        for (int i = 0; i < pods; i++) {
+            int current = i % 10 == 0 ? 0 : 1;
+            for (int p = 0; p < PHASES.length; p++) {
+                phases.add(new Sample(new String("ns-" + (i % 50)), new String("app-" + i), PHASES[p], p == current ? 1 : 0));
+            }
+        }
+        Collections.shuffle(phases, random);
+    }
+
+    @Benchmark
+    public List<PodDTO> columnTable() {
+        PodMetricTable table = new PodMetricTable();
+        for (PodDTO info : infos) {
+            table.putInfo(table.rowOf(info.getNameSpace(), info.getPodName()), info);
+        }
+        for (int m = 0; m < METRICS.length; m++) {
+            int column = TABLE_COLUMNS[m];
+            for (Sample s : metrics.get(m)) {
+                int row = table.find(s.namespace(), s.pod());
+                if (row >= 0) {
+                    table.set(column, row, s.value());
+                }
+            }
+        }
+        for (Sample s : phases) {
+            int row = table.find(s.namespace(), s.pod());
+            if (row >= 0) {
+                table.markPhase(row, s.phase(), s.value());
+            }
+        }
+        return table.toPodDTOList();
+    }
+
+    @Benchmark
+    public List<PodDTO> nestedMaps() {
+        List<Map<String, Map<String, Double>>> byMetric = new ArrayList<>();
+        for (List<Sample> samples : metrics) {
+            Map<String, Map<String, Double>> map = new LinkedHashMap<>();
+            for (Sample s : samples) {
+                map.computeIfAbsent(s.namespace(), k -> new LinkedHashMap<>()).put(s.pod(), s.value());
+            }
+            byMetric.add(map);
+        }
+        Map<String, Map<String, Map<String, Double>>> phaseMap = new HashMap<>();
+        for (Sample s : phases) {
+            phaseMap.computeIfAbsent(s.namespace(), k -> new HashMap<>())
+                    .computeIfAbsent(s.pod(), k -> new HashMap<>())
+                    .put(s.phase(), s.value());
+        }
+
+        List<PodDTO> result = new ArrayList<>(infos.size());
+        for (PodDTO pod : infos) {
+            String ns = pod.getNameSpace();
+            String name = pod.getPodName();
+            double cpu = byMetric.get(0).getOrDefault(ns, Collections.emptyMap()).getOrDefault(name, 0.0);
+            double memory = byMetric.get(1).getOrDefault(ns, Collections.emptyMap()).getOrDefault(name, 0.0) / 1024 / 1024;
+            double netTx = byMetric.get(2).getOrDefault(ns, Collections.emptyMap()).getOrDefault(name, 0.0);
+            double netRx = byMetric.get(3).getOrDefault(ns, Collections.emptyMap()).getOrDefault(name, 0.0);
+            Double created = byMetric.get(4).getOrDefault(ns, Collections.emptyMap()).get(name);
+            long restarts = byMetric.get(5).getOrDefault(ns, Collections.emptyMap()).getOrDefault(name, 0.0).longValue();
+
+            String status = "Unknown";
+            Map<String, Double> podPhases = phaseMap.getOrDefault(ns, Collections.emptyMap()).getOrDefault(name, Collections.emptyMap());
+            if (byMetric.get(6).getOrDefault(ns, Collections.emptyMap()).getOrDefault(name, 0.0) > 0) {
+                status = "CrashLoopBackOff";
+            } else if (podPhases.getOrDefault("Failed", 0.0) > 0) {
+                status = "Failed";
+            } else if (podPhases.getOrDefault("Pending", 0.0) > 0) {
+                status = "Pending";
+            } else if (podPhases.getOrDefault("Succeeded", 0.0) > 0) {
+                status = "Succeeded";
+            } else if (podPhases.getOrDefault("Running", 0.0) > 0) {
+                status = "Running";
+            }
+
+            result.add(PodDTO.builder()
+                    .podName(name)
+                    .podId(pod.getPodId())
+                    .nameSpace(ns)
+                    .cpu(cpu)
+                    .memory(memory)
+                    .networkTransmit(netTx)
+                    .networkReceive(netRx)
+                    .createdAt(created != null ? Instant.ofEpochSecond(created.longValue()).toString() : null)
+                    .restartCount(restarts)
+                    .status(status)
+                    .nodeName(pod.getNodeName())
+                    .uid(pod.getUid())
+                    .build());
+        }
+        return result;
+    }
+}
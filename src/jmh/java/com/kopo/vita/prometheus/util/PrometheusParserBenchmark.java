@@ -0,0 +1,116 @@
+package com.kopo.vita.prometheus.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kopo.vita.prometheus.dto.PodDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스트리밍 파서(PrometheusResultParser) vs JsonNode 트리 파싱 (기존 방식).
+ * vector: kube_pod_info 형태 pods 개 시리즈, matrix: 시리즈 200개 × 포인트 points 개 (range query).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PrometheusParserBenchmark {
+
+    @Param({"1000", "10000"})
+    int pods;
+
+    @Param({"40"})
+    int points;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private byte[] vector;
+    private byte[] matrix;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("{\"status\":\"success\",\"data\":{\"resultType\":\"vector\",\"result\":[");
+        for (int i = 0; i < pods; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"metric\":{\"__name__\":\"kube_pod_info\",\"namespace\":\"ns-").append(i % 50)
+                    .append("\",\"pod\":\"app-").append(i).append("-7f9c8d\",\"uid\":\"uid-").append(i)
+                    .append("\",\"node\":\"node-").append(i % 20).append("\",\"host_ip\":\"10.0.").append(i % 250)
+                    .append(".1\",\"created_by_kind\":\"ReplicaSet\"},\"value\":[1700000000.123,\"1\"]}");
+        }
+        vector = sb.append("]}}").toString().getBytes(StandardCharsets.UTF_8);
+
+        sb = new StringBuilder("{\"status\":\"success\",\"data\":{\"resultType\":\"matrix\",\"result\":[");
+        for (int s = 0; s < 200; s++) {
+            if (s > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"metric\":{\"instance\":\"10.0.0.").append(s % 20).append(":8080\",\"uri\":\"/api/").append(s)
+                    .append("\"},\"values\":[");
+            for (int p = 0; p < points; p++) {
+                if (p > 0) {
+                    sb.append(',');
+                }
+                sb.append('[').append(1700000000 + p * 30).append(",\"").append(s * 0.5 + p * 0.25).append("\"]");
+            }
+            sb.append("]}");
+        }
+        matrix = sb.append("]}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<PodDTO> vectorStreaming() {
+        return PrometheusResultParser.extractPodDTOList(new ByteArrayInputStream(vector), mapper);
+    }
+
+    @Benchmark
+    public List<PodDTO> vectorTree() throws IOException {
+        List<PodDTO> podList = new ArrayList<>();
+        for (JsonNode item : mapper.readTree(vector).path("data").path("result")) {
+            JsonNode metric = item.path("metric");
+            String podName = metric.path("pod").asText(null);
+            String podId = metric.path("uid").asText(null);
+            String nameSpace = metric.path("namespace").asText(null);
+            if (podName != null && !podName.isEmpty()
+                    && podId != null && !podId.isEmpty()
+                    && nameSpace != null && !nameSpace.isEmpty()) {
+                podList.add(PodDTO.builder()
+                        .podName(podName)
+                        .podId(podId)
+                        .nameSpace(nameSpace)
+                        .nodeName(metric.path("node").asText(null))
+                        .uid(podId)
+                        .build());
+            }
+        }
+        return podList;
+    }
+
+    @Benchmark
+    public double matrixStreaming() throws IOException {
+        double[] sum = {0};
+        PrometheusResultParser.readSeries(new ByteArrayInputStream(matrix), mapper, (labels, samples, size) -> {
+            for (int i = 1; i < size; i += 2) {
+                sum[0] += samples[i];
+            }
+        });
+        return sum[0];
+    }
+
+    @Benchmark
+    public double matrixTree() throws IOException {
+        double sum = 0;
+        for (JsonNode series : mapper.readTree(matrix).path("data").path("result")) {
+            series.path("metric").path("instance").asText();
+            for (JsonNode value : series.path("values")) {
+                sum += value.get(1).asDouble();
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,55 @@
+package com.kopo.vita.common.controller;
+
+import com.kopo.vita.common.util.SingleFlightRegistry;
+import com.kopo.vita.loganalysis.service.AnalysisService;
+import com.kopo.vita.loganalysis.service.LokiTailService;
+import com.kopo.vita.metricchart.service.MetricChartService;
+import com.kopo.vita.prometheus.service.PodStatePushService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final SingleFlightRegistry singleFlightRegistry;
+    private final MetricChartService metricChartService;
+    private final LokiTailService lokiTailService;
+    private final AnalysisService analysisService;
+    private final PodStatePushService podStatePushService;
+
+    /** 동시 요청 합치기(single-flight) 그룹별 hit / miss */
+    @GetMapping("/single-flight")
+    public Map<String, Map<String, Object>> singleFlight() {
+        return singleFlightRegistry.getStats();
+    }
+
+    /** 차트 range query 증분 캐시 hit / partial / miss 및 보관 포인트 수 */
+    @GetMapping("/range-cache")
+    public Map<String, Object> rangeCache() {
+        return metricChartService.getRangeCacheStats();
+    }
+
+    /** 로그 증분 수집기 상태 (파드 수, 보관 이벤트 수, 준비 여부) */
+    @GetMapping("/log-tail")
+    public Map<String, Object> logTail() {
+        return lokiTailService.getStats();
+    }
+
+    /** 분석 결과 캐시 hit / miss / 만료 / 무효화 */
+    @GetMapping("/analysis-cache")
+    public Map<String, Object> analysisCache() {
+        return analysisService.getCacheStats();
+    }
+
+    /** 상태 push 구독자 수 / 현재 버전 */
+    @GetMapping("/state-push")
+    public Map<String, Object> statePush() {
+        return podStatePushService.getStats();
+    }
+}
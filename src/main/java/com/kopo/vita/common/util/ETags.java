@@ -0,0 +1,98 @@
+package com.kopo.vita.common.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 응답 본문 내용 기반 ETag 생성 / If-None-Match 비교.
+ * 모두 weak ETag (W/"...") 로 만든다. Tomcat 은 strong ETag 가 붙은 응답을 압축하지 않기 때문.
+ */
+@UtilityClass
+public class ETags {
+
+    // SHA-256 앞 16바이트만 사용
+    private static final int HASH_BYTES = 16;
+
+    /**
+     * 값을 JSON 으로 직렬화한 내용의 해시 (W/"..." 형태의 weak ETag).
+     * 직렬화 결과를 메모리에 모으지 않고 바로 digest 에 흘려 넣는다.
+     */
+    public String of(ObjectMapper mapper, Object value) {
+        MessageDigest digest = sha256();
+        try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            mapper.writeValue(out, value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return weak(hex(digest));
+    }
+
+    /**
+     * 같은 원본에서 조건에 따라 다르게 잘라낸 응답(페이지 등)의 ETag: 원본 ETag + 조건 digest.
+     * @param condition 조건 이름 → 값 (이름 순으로 정렬해 digest, null 값은 생략)
+     */
+    public String derive(String etag, Map<String, ?> condition) {
+        MessageDigest digest = sha256();
+        new TreeMap<>(condition).forEach((name, value) -> {
+            if (value != null) {
+                // 이름=값 을 길이와 함께 넣어 구분자가 값에 들어 있어도 조합이 겹치지 않게 함
+                String part = name + "=" + value;
+                digest.update((part.length() + ":" + part + ";").getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        return weak(opaque(etag) + "-" + hex(digest));
+    }
+
+    /** If-None-Match 헤더가 etag 와 일치하는지 (목록 / * / W/ 접두어 허용) */
+    public boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String target = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (opaque(tag).equals(target)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String weak(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+
+    // W/ 접두어와 따옴표를 뗀 값 (weak 비교)
+    private String opaque(String tag) {
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        return tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"") ? tag.substring(1, tag.length() - 1) : tag;
+    }
+
+    private String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(Arrays.copyOf(digest.digest(), HASH_BYTES));
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.kopo.vita.common.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.stereotype.Component;
+
+/**
+ * 공유 ObjectMapper 와 미리 만들어 둔 ObjectReader (thread-safe, 재사용)
+ */
+@Component
+public class JsonReaders {
+
+    private final ObjectMapper mapper;
+    private final ObjectReader tree;
+
+    public JsonReaders(ObjectMapper mapper) {
+        this.mapper = mapper;
+        this.tree = mapper.readerFor(JsonNode.class);
+    }
+
+    public ObjectMapper mapper() {
+        return mapper;
+    }
+
+    /** JsonNode 트리 reader (Prometheus range 응답, Gemini 응답 및 모델이 돌려준 분석 JSON) */
+    public ObjectReader tree() {
+        return tree;
+    }
+}
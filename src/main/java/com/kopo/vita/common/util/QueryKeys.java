@@ -0,0 +1,58 @@
+package com.kopo.vita.common.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 쿼리 합치기 / 캐시 키 생성용 헬퍼
+ */
+@UtilityClass
+public class QueryKeys {
+
+    /**
+     * 합치기 / 캐시 키용 정규화: 문자열 밖의 연속 공백을 하나로 줄이고 앞뒤 공백 제거.
+     * PromQL / LogQL 문자열("...", '...', `...`) 안은 그대로 유지한다 ("..." / '...' 는 \ escape 처리).
+     * 결과는 키로만 쓰고 upstream 에는 원본 쿼리를 보낸다.
+     */
+    public String normalize(String query) {
+        StringBuilder sb = new StringBuilder(query.length());
+        char quote = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (quote != 0) {
+                sb.append(c);
+                if (c == '\\' && quote != '`' && i + 1 < query.length()) {
+                    sb.append(query.charAt(++i));
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                pendingSpace = sb.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                sb.append(' ');
+                pendingSpace = false;
+            }
+            if (c == '"' || c == '\'' || c == '`') {
+                quote = c;
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 시각을 step 경계로 내림 (같은 버킷의 range 요청이 같은 구간을 조회하도록)
+     */
+    public Instant alignDown(Instant time, Duration step) {
+        long stepSeconds = step.toSeconds();
+        long epoch = time.getEpochSecond();
+        return Instant.ofEpochSecond(epoch - Math.floorMod(epoch, stepSeconds));
+    }
+}
@@ -0,0 +1,67 @@
+package com.kopo.vita.common.util;
+
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키로 동시에 들어온 요청을 하나의 upstream 호출로 합치는 single-flight 그룹.
+ * 진행 중인 호출이 있으면 그 Mono 를 공유하고, 완료(성공/실패)되면 바로 제거한다. (결과 캐시 아님)
+ */
+public class SingleFlight<K, V> {
+
+    private final String name;
+    private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 진행 중인 같은 키의 호출이 있으면 합류하고, 없으면 call 로 새 호출을 시작한다.
+     * call.get() 은 맵 갱신 밖에서, 등록에 성공한 호출이 실제로 구독될 때만 실행된다.
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            Mono<V> shared = inFlight.get(key);
+            if (shared != null) {
+                hits.increment();
+                return shared;
+            }
+            AtomicReference<Mono<V>> created = new AtomicReference<>();
+            Mono<V> mono = Mono.defer(call)
+                    .doFinally(signal -> inFlight.remove(key, created.get()))
+                    .share();
+            created.set(mono);
+            shared = inFlight.putIfAbsent(key, mono);
+            if (shared != null) {
+                // 동시에 먼저 등록된 호출에 합류 (mono 는 구독되지 않으므로 call 도 실행되지 않음)
+                hits.increment();
+                return shared;
+            }
+            misses.increment();
+            return mono;
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** hits: 진행 중인 호출에 합류한 횟수 (= 절약한 upstream 호출 수), misses: 실제 upstream 호출 수 */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+}
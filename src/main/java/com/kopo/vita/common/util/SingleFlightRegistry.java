@@ -0,0 +1,28 @@
+package com.kopo.vita.common.util;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 서비스별 SingleFlight 그룹 생성 및 통계 조회
+ */
+@Component
+public class SingleFlightRegistry {
+
+    private final Map<String, SingleFlight<?, ?>> groups = new ConcurrentHashMap<>();
+
+    public <K, V> SingleFlight<K, V> create(String name) {
+        SingleFlight<K, V> group = new SingleFlight<>(name);
+        groups.put(name, group);
+        return group;
+    }
+
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        groups.values().forEach(group -> stats.put(group.getName(), group.getStats()));
+        return stats;
+    }
+}
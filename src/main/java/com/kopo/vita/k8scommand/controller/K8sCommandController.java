@@ -2,7 +2,7 @@ package com.kopo.vita.k8scommand.controller;
 
 import com.kopo.vita.k8scommand.dto.ExecRequest;
 import com.kopo.vita.k8scommand.service.K8sCommandService;
-import com.kopo.vita.loganalysis.service.LogAnalysisService;
+import com.kopo.vita.loganalysis.service.AnalysisService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -17,11 +17,11 @@ import java.util.Map;
 public class K8sCommandController {
 
     private final K8sCommandService k8sService;
-    private final LogAnalysisService logAnalysisService;
+    private final AnalysisService analysisService;
 
-    public K8sCommandController(K8sCommandService k8sService, LogAnalysisService logAnalysisService) {
+    public K8sCommandController(K8sCommandService k8sService, AnalysisService analysisService) {
         this.k8sService = k8sService;
-        this.logAnalysisService = logAnalysisService;
+        this.analysisService = analysisService;
     }
 
     @PostMapping("/exec")
@@ -36,7 +36,9 @@ public class K8sCommandController {
             Object result = k8sService.execute(req.getCommand());
             response.put("result", result);
             response.put("success", true);
-            logAnalysisService.clearLastAnalysis();
+            // 변경 명령이면 해당 namespace / deployment 의 분석 캐시만 무효화
+            k8sService.mutationScope(req.getCommand())
+                    .ifPresent(scope -> analysisService.invalidate(scope.namespace(), scope.deployment()));
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
             response.put("error", e.getMessage());
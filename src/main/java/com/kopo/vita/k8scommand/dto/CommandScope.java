@@ -0,0 +1,7 @@
+package com.kopo.vita.k8scommand.dto;
+
+/**
+ * 변경 명령이 영향을 주는 범위 (deployment 가 null 이면 namespace 전체)
+ */
+public record CommandScope(String namespace, String deployment) {
+}
@@ -1,5 +1,6 @@
 package com.kopo.vita.k8scommand.service;
 
+import com.kopo.vita.k8scommand.dto.CommandScope;
 import io.fabric8.kubernetes.api.model.apps.Deployment;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.base.PatchContext;
@@ -52,6 +53,33 @@ public class K8sCommandService {
         }
     }
 
+    /**
+     * 클러스터 상태를 바꾸는 명령이면 영향 범위를, 조회 명령(get / describe / logs)이면 empty 반환
+     */
+    public Optional<CommandScope> mutationScope(String cmd) {
+        String[] p = cmd.trim().split("\\s+");
+        if (p.length < 3 || !"kubectl".equals(p[0])) {
+            return Optional.empty();
+        }
+        String ns = findOptionValue(p, "-n", "--namespace", "default");
+        switch (p[1]) {
+            case "patch":
+            case "scale":
+                return Optional.of(new CommandScope(ns, "deployment".equals(p[2]) && p.length > 3 ? p[3] : null));
+            case "set":
+            case "rollout":
+                // deployment/<name> 형식
+                String target = p.length > 3 ? p[3] : "";
+                String[] kindName = target.split("/", 2);
+                return Optional.of(new CommandScope(ns, kindName.length == 2 ? kindName[1] : null));
+            case "exec":
+                // 파드 안에서 무엇을 바꿨는지 알 수 없으므로 namespace 전체
+                return Optional.of(new CommandScope(ns, null));
+            default:
+                return Optional.empty();
+        }
+    }
+
     private Object handleGet(String[] p) {
         String resource = p[2];
         String ns = findOptionValue(p, "-n", "--namespace", "default");
@@ -3,46 +3,70 @@ package com.kopo.vita.loganalysis.controller;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.kopo.vita.loganalysis.service.GeminiClientService;
-import com.kopo.vita.loganalysis.service.LogAnalysisService;
+import com.kopo.vita.loganalysis.dto.AnalysisJobDTO;
+import com.kopo.vita.loganalysis.service.AnalysisJobService;
+import com.kopo.vita.loganalysis.service.AnalysisService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/log")
 public class LogAnalysisController {
 
-    private final GeminiClientService geminiClientService;
+    private final AnalysisService analysisService;
+    private final AnalysisJobService analysisJobService;
     private final ObjectMapper objectMapper;
-    private final LogAnalysisService logservice;
 
-    public LogAnalysisController(GeminiClientService gemini, ObjectMapper objectMapper, LogAnalysisService logservice) {
-        this.geminiClientService = gemini;
+    public LogAnalysisController(AnalysisService analysisService,
+                                 AnalysisJobService analysisJobService,
+                                 ObjectMapper objectMapper) {
+        this.analysisService = analysisService;
+        this.analysisJobService = analysisJobService;
         this.objectMapper = objectMapper;
-        this.logservice = logservice;
 
     }
 
+    /** 분석 작업 제출. 바로 작업 id 를 반환하고 진행 상황은 /analyze/jobs/{id}/events 로 받는다 */
     @PostMapping("/analyze")
-    public ResponseEntity<JsonNode> analyze() {
+    public ResponseEntity<?> analyze() {
         try {
-            ObjectNode payload = logservice.buildPayloadJson();
-            ObjectNode geminiRequest = geminiClientService.buildGeminiRequest(payload);
-            JsonNode analysis = geminiClientService.callGeminiAndParse(geminiRequest);
-            logservice.setLastAnalysis(analysis);
-            return ResponseEntity.ok(analysis);
-
-        } catch (Exception e) {
-            e.printStackTrace();
+            AnalysisJobDTO job = analysisJobService.submit();
+            return ResponseEntity.accepted().body(job);
+
+        } catch (RejectedExecutionException e) {
             ObjectNode error = objectMapper.createObjectNode();
-            error.put("error", e.getMessage());
-            return ResponseEntity.status(500).body(error);
+            error.put("error", "분석 요청이 많아 잠시 후 다시 시도해 주세요.");
+            return ResponseEntity.status(503).body(error);
+        }
+    }
+
+    @GetMapping("/analyze/jobs/{jobId}")
+    public ResponseEntity<AnalysisJobDTO> getJob(@PathVariable String jobId) {
+        AnalysisJobDTO job = analysisJobService.get(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    /** 작업 진행 이벤트 (progress → partial* → result | error, 이미 지난 이벤트도 처음부터 재전송) */
+    @GetMapping(value = "/analyze/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<Object>>> getJobEvents(@PathVariable String jobId) {
+        Flux<ServerSentEvent<Object>> events = analysisJobService.events(jobId);
+        if (events == null) {
+            return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.ok(events);
     }
 
     @GetMapping("/analyze")
     public ResponseEntity<JsonNode> getLastAnalysis() {
-        JsonNode last = logservice.getLastAnalysis();
+        JsonNode last = analysisService.getLastAnalysis();
         if (last == null) {
             ObjectNode msg = objectMapper.createObjectNode();
             msg.put("message", "아직 분석된 결과가 없습니다.");
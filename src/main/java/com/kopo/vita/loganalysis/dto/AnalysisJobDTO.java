@@ -0,0 +1,26 @@
+package com.kopo.vita.loganalysis.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/** 분석 작업 상태 조회 응답 */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalysisJobDTO {
+    private String jobId;
+    // QUEUED, RUNNING, DONE, FAILED
+    private String status;
+    // collecting, detecting, cached, gemini, done
+    private String stage;
+    private Instant submittedAt;
+    private Instant finishedAt;
+    private JsonNode result;
+    private String error;
+}
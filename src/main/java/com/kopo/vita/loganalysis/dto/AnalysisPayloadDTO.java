@@ -0,0 +1,22 @@
+package com.kopo.vita.loganalysis.dto;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/** 분석 입력: Gemini 로 보낼 페이로드 + 로컬 탐지 결과 (fingerprint 계산용 원본 포함) */
+@Data
+@AllArgsConstructor
+public class AnalysisPayloadDTO {
+    private ObjectNode payload;
+    private List<AnomalyDTO> anomalies;
+    // 이상 징후가 없고 모든 지표를 받았으면 true (Gemini 호출 생략)
+    private boolean healthy;
+    private Map<String, Map<String, Double>> summary;
+    // 페이로드에 담긴 로그 이벤트 (이상 구간만 담았으면 그 구간의 로그)
+    private List<LogEventDTO> logs;
+    private List<String> missingSources;
+}
@@ -0,0 +1,24 @@
+package com.kopo.vita.loganalysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/** 로컬 이상 탐지 결과 한 건 */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnomalyDTO {
+    // cpuUsage, memoryUsage, diskUsage, httpTraffic, gcCount
+    private String metric;
+    // SPIKE, DEVIATION, TREND_UP, TREND_DOWN
+    private String type;
+    private Instant timestamp;
+    private double value;
+    // 비교 기준값 (SPIKE: EWMA, DEVIATION: 평균, TREND: 추세 시작값)
+    private double baseline;
+}
@@ -0,0 +1,23 @@
+package com.kopo.vita.loganalysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/** JVM unified logging 의 GC(n) 로그 */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public final class GcLogDTO implements LogEventDTO {
+    private Instant timestamp;
+    private String app;
+    private String pod;
+    private String gcUptime;
+    private long gcId;
+    private String gcType;
+    private String gcDetail;
+}
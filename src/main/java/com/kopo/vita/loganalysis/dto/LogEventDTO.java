@@ -0,0 +1,15 @@
+package com.kopo.vita.loganalysis.dto;
+
+import java.time.Instant;
+
+/**
+ * Loki 로그 한 줄을 분류한 결과 (시스템 메트릭 로그 / GC 로그)
+ */
+public sealed interface LogEventDTO permits SystemMetricLogDTO, GcLogDTO {
+
+    Instant getTimestamp();
+
+    String getApp();
+
+    String getPod();
+}
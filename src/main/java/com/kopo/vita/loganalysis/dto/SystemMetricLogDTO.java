@@ -0,0 +1,24 @@
+package com.kopo.vita.loganalysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/** "CPU 부하: ..., JVM 메모리: ...%" 형식의 애플리케이션 메트릭 로그 */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public final class SystemMetricLogDTO implements LogEventDTO {
+    private Instant timestamp;
+    private String app;
+    private String pod;
+    private double cpuLoad;
+    private double jvmMemory;
+    private int threadCount;
+    private int processorCount;
+    private double diskUsage;
+}
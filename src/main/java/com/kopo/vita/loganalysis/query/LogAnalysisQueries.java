@@ -1,5 +1,7 @@
 package com.kopo.vita.loganalysis.query;
 
+import com.kopo.vita.loganalysis.util.LogFormatter;
+
 public class LogAnalysisQueries {
 
     private LogAnalysisQueries() {
@@ -20,4 +22,16 @@ public class LogAnalysisQueries {
     // HTTP 요청 처리량
     public static final String  HTTP_TRAFFIC =
             "rate(http_server_requests_seconds_count{job=\"testapp\"}[1m])";
+
+    // 분석 대상 앱 로그 스트림
+    public static final String LOKI_APP_SELECTOR =
+            "{app=\"testapp\"}";
+
+    // 분류 대상(시스템 메트릭 / GC) 라인만 내려받는 로그 쿼리 (필터 정규식은 LogFormatter 추출기 정의에서 생성)
+    public static final String LOKI_EVENT_LINES =
+            LOKI_APP_SELECTOR + " |~ `" + LogFormatter.lineFilterRegex() + "`";
+
+    // 구간(30초)별 GC 로그 수 (LogQL 메트릭 쿼리)
+    public static final String LOKI_GC_COUNT =
+            "sum(count_over_time(" + LOKI_APP_SELECTOR + " |= `" + LogFormatter.gcMarker() + "` [30s]))";
 }
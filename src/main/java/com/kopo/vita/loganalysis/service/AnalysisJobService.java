@@ -0,0 +1,196 @@
+package com.kopo.vita.loganalysis.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.kopo.vita.loganalysis.dto.AnalysisJobDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 로그 분석 작업 실행기.
+ * 제출 즉시 작업 id 를 돌려주고 고정 크기 워커 풀에서 분석을 실행한다.
+ * 진행 단계 / 결과는 작업별 이벤트 스트림(SSE)으로 전달하며, 같은 분석이 이미 진행 중이면 그 작업을 그대로 돌려준다.
+ * 끝난 작업은 최근 historySize 개까지만 보관한다.
+ */
+@Service
+@Slf4j
+public class AnalysisJobService {
+
+    // 현재 분석 요청에는 파라미터가 없으므로 진행 중인 작업은 하나의 키로 합친다
+    private static final String ANALYZE_KEY = "analyze";
+
+    private final AnalysisService analysisService;
+    private final ThreadPoolExecutor executor;
+    private final int historySize;
+    // 작업 이벤트 스트림 최대 유지 시간 (대기열에서 오래 기다린 작업도 재연결로 이어 받음)
+    private final Duration eventsMaxDuration;
+
+    // 작업 id → 작업 (제출 순서, 끝난 작업은 오래된 것부터 정리)
+    private final LinkedHashMap<String, Job> jobs = new LinkedHashMap<>();
+    // 요청 키 → 진행 중인 작업 id
+    private final Map<String, String> inFlight = new HashMap<>();
+
+    public AnalysisJobService(AnalysisService analysisService,
+                              @Value("${loganalysis.jobs.workers:2}") int workers,
+                              @Value("${loganalysis.jobs.queue-capacity:20}") int queueCapacity,
+                              @Value("${loganalysis.jobs.history-size:50}") int historySize,
+                              @Value("${loganalysis.jobs.events-max-duration:600000}") long eventsMaxDurationMs) {
+        this.analysisService = analysisService;
+        this.historySize = historySize;
+        this.eventsMaxDuration = Duration.ofMillis(eventsMaxDurationMs);
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "analysis-job-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static class Job {
+        final String id = UUID.randomUUID().toString();
+        final String key;
+        final Instant submittedAt = Instant.now();
+        // 늦게 구독해도 지난 이벤트를 모두 받도록 replay
+        final Sinks.Many<ServerSentEvent<Object>> events = Sinks.many().replay().all();
+        volatile String status = "QUEUED";
+        // queued → collecting → detecting → cached | local | gemini → done
+        volatile String stage = "queued";
+        volatile Instant finishedAt;
+        volatile JsonNode result;
+        volatile String error;
+
+        Job(String key) {
+            this.key = key;
+        }
+
+        boolean isFinished() {
+            return finishedAt != null;
+        }
+    }
+
+    /**
+     * 분석 작업 제출. 진행 중인 같은 작업이 있으면 그 작업 상태를 반환
+     * @throws RejectedExecutionException 대기열이 가득 찬 경우
+     */
+    public synchronized AnalysisJobDTO submit() {
+        String runningId = inFlight.get(ANALYZE_KEY);
+        if (runningId != null && jobs.containsKey(runningId)) {
+            return toDTO(jobs.get(runningId));
+        }
+
+        Job job = new Job(ANALYZE_KEY);
+        // 첫 이벤트는 워커가 시작하기 전에 발행 (이후 발행은 워커 스레드에서만)
+        emit(job, "progress");
+        executor.execute(() -> run(job));
+        jobs.put(job.id, job);
+        inFlight.put(job.key, job.id);
+        trimHistory();
+        return toDTO(job);
+    }
+
+    /** 작업 상태 (없으면 null) */
+    public synchronized AnalysisJobDTO get(String jobId) {
+        Job job = jobs.get(jobId);
+        return job != null ? toDTO(job) : null;
+    }
+
+    /** 작업 이벤트 스트림 (progress → partial* → result | error). 없는 작업이면 null */
+    public Flux<ServerSentEvent<Object>> events(String jobId) {
+        Job job;
+        synchronized (this) {
+            job = jobs.get(jobId);
+        }
+        return job != null ? job.events.asFlux().take(eventsMaxDuration) : null;
+    }
+
+    private void run(Job job) {
+        job.status = "RUNNING";
+        try {
+            JsonNode result = analysisService.analyze(stage -> {
+                job.stage = stage;
+                emit(job, "progress");
+            }, (field, text) -> emitPartial(job, field, text));
+            job.result = result;
+            job.status = "DONE";
+            job.stage = "done";
+            job.finishedAt = Instant.now();
+            emit(job, "result");
+        } catch (Exception e) {
+            log.warn("analysis job {} failed: {}", job.id, e.toString());
+            job.error = e.getMessage();
+            job.status = "FAILED";
+            job.finishedAt = Instant.now();
+            emit(job, "error");
+        } finally {
+            synchronized (this) {
+                inFlight.remove(job.key, job.id);
+                trimHistory();
+            }
+            job.events.tryEmitComplete();
+        }
+    }
+
+    private void emit(Job job, String event) {
+        Object data = switch (event) {
+            case "result" -> job.result;
+            case "error" -> Map.of("jobId", job.id, "error", String.valueOf(job.error));
+            default -> Map.of("jobId", job.id, "status", job.status, "stage", job.stage);
+        };
+        // 이벤트 발행은 작업 스레드 하나에서만 일어나므로 실패 시 재시도하지 않음
+        job.events.tryEmitNext(ServerSentEvent.builder(data).id(job.id).event(event).build());
+    }
+
+    // Gemini 스트리밍 중 도착한 텍스트 조각 (화면에서 필드별로 이어 붙임)
+    private void emitPartial(Job job, String field, String text) {
+        Map<String, Object> data = Map.of("jobId", job.id, "field", field, "text", text);
+        job.events.tryEmitNext(ServerSentEvent.<Object>builder(data).id(job.id).event("partial").build());
+    }
+
+    // 끝난 작업이 historySize 를 넘으면 오래된 것부터 제거 (진행 중인 작업은 유지)
+    private void trimHistory() {
+        int finished = 0;
+        for (Job job : jobs.values()) {
+            if (job.isFinished()) {
+                finished++;
+            }
+        }
+        Iterator<Job> it = jobs.values().iterator();
+        while (finished > historySize && it.hasNext()) {
+            Job job = it.next();
+            if (job.isFinished()) {
+                it.remove();
+                finished--;
+            }
+        }
+    }
+
+    private AnalysisJobDTO toDTO(Job job) {
+        return AnalysisJobDTO.builder()
+                .jobId(job.id)
+                .status(job.status)
+                .stage(job.stage)
+                .submittedAt(job.submittedAt)
+                .finishedAt(job.finishedAt)
+                .result(job.result)
+                .error(job.error)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
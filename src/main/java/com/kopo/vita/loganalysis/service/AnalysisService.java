@@ -0,0 +1,127 @@
+package com.kopo.vita.loganalysis.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kopo.vita.common.util.JsonReaders;
+import com.kopo.vita.loganalysis.dto.AnalysisPayloadDTO;
+import com.kopo.vita.loganalysis.util.AnalysisCache;
+import com.kopo.vita.loganalysis.util.AnalysisFingerprint;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 로그 분석 흐름: 수집 → 로컬 이상 탐지 → 캐시 확인 → (이상이 있을 때만) Gemini 분석.
+ */
+@Service
+@Slf4j
+public class AnalysisService {
+
+    private final LogAnalysisService logAnalysisService;
+    private final GeminiClientService geminiClientService;
+    private final ObjectMapper objectMapper;
+    // 페이로드 fingerprint → 분석 결과
+    private final AnalysisCache cache;
+    private final double fingerprintQuantum;
+    private final String scopeNamespace;
+    private final String scopeDeployment;
+    // Gemini 응답을 스트리밍으로 받을지 여부
+    private final boolean streaming;
+
+    public AnalysisService(LogAnalysisService logAnalysisService,
+                           GeminiClientService geminiClientService,
+                           JsonReaders readers,
+                           @Value("${loganalysis.cache.ttl:300000}") long cacheTtlMs,
+                           @Value("${loganalysis.cache.max-entries:100}") int cacheMaxEntries,
+                           @Value("${loganalysis.cache.quantum:0.1}") double fingerprintQuantum,
+                           @Value("${loganalysis.scope.namespace:default}") String scopeNamespace,
+                           @Value("${loganalysis.scope.deployment:testapp}") String scopeDeployment,
+                           @Value("${gemini.streaming:true}") boolean streaming) {
+        this.logAnalysisService = logAnalysisService;
+        this.geminiClientService = geminiClientService;
+        this.objectMapper = readers.mapper();
+        this.cache = new AnalysisCache(Duration.ofMillis(cacheTtlMs), cacheMaxEntries);
+        this.fingerprintQuantum = fingerprintQuantum;
+        this.scopeNamespace = scopeNamespace;
+        this.scopeDeployment = scopeDeployment;
+        this.streaming = streaming;
+    }
+
+    public JsonNode analyze() throws Exception {
+        return analyze(stage -> {
+        }, (field, text) -> {
+        });
+    }
+
+    /**
+     * 분석 실행. 같은 fingerprint 의 결과가 캐시에 있으면 그대로 반환하고,
+     * 이상 징후가 없으면 Gemini 를 호출하지 않고 정상 결과를 반환한다.
+     * progress 로 진행 단계(collecting → detecting → cached | local | gemini)를 알리고,
+     * 스트리밍 모드에서는 partial 로 situation / analysis 텍스트를 도착하는 대로 넘긴다.
+     */
+    public JsonNode analyze(Consumer<String> progress, BiConsumer<String, String> partial) throws Exception {
+        // 로그 / 메트릭은 동시에 수집 (소스별 timeout, 일부 실패 허용)
+        progress.accept("collecting");
+        AnalysisPayloadDTO input = logAnalysisService.buildPayloadJson().block();
+        if (input == null) {
+            throw new IllegalStateException("분석 입력을 만들지 못했습니다.");
+        }
+
+        progress.accept("detecting");
+        String fingerprint = AnalysisFingerprint.of(input, fingerprintQuantum);
+        JsonNode cached = cache.get(fingerprint);
+        if (cached != null) {
+            progress.accept("cached");
+            return cached;
+        }
+
+        JsonNode analysis;
+        if (input.isHealthy()) {
+            progress.accept("local");
+            analysis = healthyResult();
+        } else {
+            progress.accept("gemini");
+            log.info("{} anomalies detected, requesting Gemini analysis", input.getAnomalies().size());
+            ObjectNode geminiRequest = geminiClientService.buildGeminiRequest(input.getPayload());
+            analysis = streaming
+                    ? geminiClientService.streamGeminiAndParse(geminiRequest, partial)
+                    : geminiClientService.callGeminiAndParse(geminiRequest);
+        }
+        cache.put(fingerprint, analysis, scopeNamespace, scopeDeployment);
+        return analysis;
+    }
+
+    /** 마지막 분석 결과 (무효화 / 만료됐으면 null) */
+    public JsonNode getLastAnalysis() {
+        return cache.latest();
+    }
+
+    /** namespace (+ deployment) 범위의 분석 캐시 무효화 */
+    public void invalidate(String namespace, String deployment) {
+        int removed = cache.invalidate(namespace, deployment);
+        if (removed > 0) {
+            log.info("analysis cache invalidated: {} entries ({}/{})", removed, namespace, deployment);
+        }
+    }
+
+    public Map<String, Object> getCacheStats() {
+        return cache.getStats();
+    }
+
+    // Gemini 응답과 같은 스키마의 정상 결과
+    private ObjectNode healthyResult() {
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("situation", "최근 10분 동안 수집된 지표에서 이상 징후가 발견되지 않았습니다.");
+        result.put("analysis", "CPU, 메모리, 디스크, HTTP 트래픽, GC 지표 모두 급증, 지속적인 증감 추세, 정상 범위 이탈이 없습니다.");
+        result.put("rootCause", "");
+        result.putArray("recommendations");
+        result.put("source", "local");
+        return result;
+    }
+}
@@ -4,31 +4,64 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kopo.vita.common.util.JsonReaders;
+import com.kopo.vita.loganalysis.util.PartialJsonFields;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
 
 @Service
+@Slf4j
 public class GeminiClientService {
 
+    // 스트리밍 중 화면에 먼저 보여 줄 필드
+    private static final String[] STREAMED_FIELDS = {"situation", "analysis"};
+
     private final String endpoint;
+    private final String streamEndpoint;
     private final String apiKey;
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final JsonReaders readers;
+    private final Duration timeout;
+    private final Duration streamTimeout;
 
     public GeminiClientService(
             @Value("${gemini.endpoint}") String endpoint,
             @Value("${gemini.apiKey}") String apiKey,
-            ObjectMapper objectMapper) {
+            @Value("${gemini.stream-endpoint:}") String streamEndpoint,
+            @Value("${gemini.timeout:60000}") long timeoutMs,
+            @Value("${gemini.stream-timeout:180000}") long streamTimeoutMs,
+            JsonReaders readers) {
         this.endpoint = endpoint;
+        // 지정하지 않으면 generateContent 엔드포인트에서 유도
+        this.streamEndpoint = streamEndpoint.isBlank()
+                ? endpoint.replace(":generateContent", ":streamGenerateContent")
+                : streamEndpoint;
         this.apiKey = apiKey;
-        this.objectMapper = objectMapper;
-        this.httpClient = HttpClient.newHttpClient();
+        this.objectMapper = readers.mapper();
+        this.readers = readers;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.streamTimeout = Duration.ofMillis(streamTimeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
     }
 
     // gemini 한테 보낼 body 작성
@@ -43,7 +76,10 @@ public class GeminiClientService {
                 .put("text",
                         """
                         You are a skilled SRE (Site Reliability Engineer). \s
-                        Below JSON contains only metrics.series and metrics.summary from the last 10 minutes.
+                        Below JSON contains metrics (summary + series) and classified logs from the last 10 minutes.
+                        metrics.series.rows and logs.systemMetrics.rows are CSV lines in the order given by "columns";
+                        t is seconds since window.from, an empty field means no data, and "repeat" is how many identical
+                        consecutive log lines the row stands for. logs.gc groups GC lines that differ only in numbers.
 
                         Requirements:
                         1. Detect all anomalies in cpuUsage, memoryUsage, diskUsage, httpTraffic:
@@ -89,10 +125,10 @@ public class GeminiClientService {
         userMsg.put("role", "user");
         ArrayNode userParts = userMsg.putArray("parts");
         userParts.addObject()
-                .put("text", payload.toPrettyString());
+                .put("text", payload.toString());
         contents.add(userMsg);
 
-        System.out.println(root);
+        log.debug("Gemini request: {}", root);
         return root;
     }
     // gemini api 요청
@@ -103,6 +139,7 @@ public class GeminiClientService {
         HttpRequest req = HttpRequest.newBuilder()
                 .uri(URI.create(uri))
                 .header("Content-Type", "application/json")
+                .timeout(timeout)
                 .POST(HttpRequest.BodyPublishers.ofString(body))
                 .build();
 
@@ -118,7 +155,7 @@ public class GeminiClientService {
         String geminiResponse = analyzeWithGemini(geminiRequest);
 
         // Gemini 응답 파싱
-        JsonNode root = objectMapper.readTree(geminiResponse);
+        JsonNode root = readers.tree().readTree(geminiResponse);
         String rawText = root
                 .path("candidates").get(0)
                 .path("content")
@@ -126,13 +163,154 @@ public class GeminiClientService {
                 .path("text")
                 .asText();
 
+        return parseAnalysis(rawText);
+    }
+
+    /**
+     * streamGenerateContent(alt=sse) 로 요청하고 청크가 올 때마다 텍스트를 이어 붙인다.
+     * situation / analysis 값은 도착하는 대로 partial(필드, 추가된 텍스트)로 넘기고,
+     * 스트림이 끝나면 전체 텍스트를 분석 JSON 으로 파싱 / 검증해서 반환한다.
+     */
+    public JsonNode streamGeminiAndParse(ObjectNode geminiRequest, BiConsumer<String, String> partial)
+            throws IOException, InterruptedException {
+
+        String uri = streamEndpoint + "?alt=sse&key=" + apiKey;
+        String body = objectMapper.writeValueAsString(geminiRequest);
+        HttpRequest req = HttpRequest.newBuilder()
+                .uri(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .header("Accept", "text/event-stream")
+                .timeout(timeout)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        // 본문은 클라이언트 스레드에서 줄 단위로 밀어 주고, 호출 스레드는 전체 시간만큼만 기다린다
+        // (요청 timeout 은 응답 헤더까지만 적용되므로 멈춘 본문은 여기서 끊어야 함)
+        StreamReader reader = new StreamReader(partial);
+        HttpResponse.BodyHandler<String> handler = info -> info.statusCode() == 200
+                ? HttpResponse.BodySubscribers.fromLineSubscriber(reader, StreamReader::finish, StandardCharsets.UTF_8, null)
+                : HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+        CompletableFuture<HttpResponse<String>> future = httpClient.sendAsync(req, handler);
+        HttpResponse<String> resp;
+        try {
+            resp = future.get(streamTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new HttpTimeoutException("Gemini stream exceeded " + streamTimeout.toMillis() + " ms");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException u ? u.getCause() : e.getCause();
+            throw cause instanceof IOException io ? io : new IOException("Gemini stream failed", cause);
+        } finally {
+            if (!future.isDone()) {
+                reader.cancel();
+                future.cancel(true);
+            }
+        }
+        if (resp.statusCode() != 200) {
+            throw new IOException("Gemini API error: " + resp.statusCode() + " / " + resp.body());
+        }
+        return parseAnalysis(resp.body());
+    }
+
+    // SSE 본문을 줄 단위로 받아 청크 텍스트를 이어 붙이고 partial 필드를 넘긴다
+    private final class StreamReader implements Flow.Subscriber<String> {
+
+        private final BiConsumer<String, String> partial;
+        private final StringBuilder text = new StringBuilder();
+        private final PartialJsonFields fields = new PartialJsonFields(STREAMED_FIELDS);
+        private final long startedAt = System.nanoTime();
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+        private IOException error;
+
+        StreamReader(BiConsumer<String, String> partial) {
+            this.partial = partial;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            // SSE: "data: {청크}" 줄만 사용 (빈 줄은 이벤트 구분자), 실패 / 취소 후에는 버림
+            if (cancelled || error != null || !line.startsWith("data:")) {
+                return;
+            }
+            try {
+                JsonNode chunk = readers.tree().readTree(line.substring(5).trim());
+                boolean first = text.isEmpty();
+                for (JsonNode part : chunk.path("candidates").path(0).path("content").path("parts")) {
+                    text.append(part.path("text").asText(""));
+                }
+                if (first && !text.isEmpty()) {
+                    log.info("Gemini first chunk after {} ms", (System.nanoTime() - startedAt) / 1_000_000);
+                }
+                fields.onText(text, partial);
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // sendAsync 결과가 예외로 끝나므로 여기서는 할 일 없음
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        // 스트림이 끝났을 때 호출 (fromLineSubscriber 의 finisher)
+        String finish() {
+            if (error != null) {
+                throw new UncheckedIOException(error);
+            }
+            return text.toString();
+        }
+
+        void cancel() {
+            cancelled = true;
+            Flow.Subscription s = subscription;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+    }
+
+    // 모델이 돌려준 텍스트에서 코드블럭을 걷어내고 분석 스키마인지 확인
+    private JsonNode parseAnalysis(String rawText) throws IOException {
         // 코드블럭 제거
         String cleaned = rawText
                 .replaceAll("```json", "")
                 .replaceAll("```", "")
                 .trim();
 
-        return objectMapper.readTree(cleaned);
+        JsonNode analysis = readers.tree().readTree(cleaned);
+        validateAnalysis(analysis);
+        return analysis;
+    }
+
+    // {situation, analysis, rootCause: 문자열, recommendations: [{description, commands: [...]}]}
+    private void validateAnalysis(JsonNode analysis) throws IOException {
+        if (analysis == null || !analysis.isObject()) {
+            throw new IOException("Gemini 응답이 JSON 객체가 아닙니다.");
+        }
+        for (String field : new String[]{"situation", "analysis", "rootCause"}) {
+            if (!analysis.path(field).isTextual()) {
+                throw new IOException("Gemini 응답에 " + field + " 필드가 없습니다.");
+            }
+        }
+        JsonNode recommendations = analysis.path("recommendations");
+        if (!recommendations.isArray()) {
+            throw new IOException("Gemini 응답에 recommendations 배열이 없습니다.");
+        }
+        for (JsonNode rec : recommendations) {
+            if (!rec.path("description").isTextual() || !rec.path("commands").isArray()) {
+                throw new IOException("Gemini 응답의 recommendations 형식이 올바르지 않습니다.");
+            }
+        }
     }
 
 }
@@ -1,18 +1,29 @@
 package com.kopo.vita.loganalysis.service;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.kopo.vita.loganalysis.dto.LokiLogDTO;
-import com.kopo.vita.loganalysis.dto.MergedMetricsDTO;
-import com.kopo.vita.loganalysis.dto.MetricSampleDTO;
-import com.kopo.vita.loganalysis.dto.PrometheusMetricDTO;
+import com.kopo.vita.common.util.JsonReaders;
+import com.kopo.vita.common.util.QueryKeys;
+import com.kopo.vita.common.util.SingleFlight;
+import com.kopo.vita.common.util.SingleFlightRegistry;
+import com.kopo.vita.loganalysis.dto.AnalysisPayloadDTO;
+import com.kopo.vita.loganalysis.dto.LogEventDTO;
 import com.kopo.vita.loganalysis.query.LogAnalysisQueries;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kopo.vita.loganalysis.util.AnomalyDetector;
 import com.kopo.vita.loganalysis.util.LogFormatter;
+import com.kopo.vita.loganalysis.util.MetricFrame;
+import com.kopo.vita.loganalysis.util.MetricFrame.Aggregation;
+import com.kopo.vita.loganalysis.util.PayloadCompactor;
+import com.kopo.vita.prometheus.util.PrometheusResultParser;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
@@ -22,9 +33,9 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class LogAnalysisService {
 
     @Value("${loki.base-url}")
@@ -34,38 +45,78 @@ public class LogAnalysisService {
     private String prometheusBaseUrl;
     private final HttpClient httpClient = HttpClient.newHttpClient();
     private final ObjectMapper objectMapper;
-
-    private JsonNode lastAnalysis;
+    private final LokiTailService lokiTailService;
+    private final PayloadCompactor payloadCompactor;
+    private final AnomalyDetector anomalyDetector;
+    // 같은 (PromQL, 구간) 동시 요청은 하나의 호출을 공유
+    private final SingleFlight<String, MetricFrame.InstanceSeries> inFlight;
+    // 소스별 수집 제한 시간 (초과 시 해당 소스 없이 분석)
+    private final Duration lokiTimeout;
+    private final Duration metricTimeout;
 
     private static final String LOKI_QUERY_PATH = "/loki/api/v1/query_range";
     private static final String PROMETHEUS_QUERY_PATH = "/api/v1/query_range";
+    private static final Duration METRIC_STEP = Duration.ofSeconds(30);
     private static final Map<String, String> QUERIES = Map.of(
             "cpu",     LogAnalysisQueries.CPU_USAGE,
             "memory",  LogAnalysisQueries.MEMORY_USAGE,
             "disk",    LogAnalysisQueries.DISK_USAGE,
             "traffic", LogAnalysisQueries.HTTP_TRAFFIC
     );
+    // Loki 에서 집계만 필요한 지표 (LogQL 메트릭 쿼리, 응답 형식은 Prometheus matrix 와 동일)
+    private static final Map<String, String> LOG_QUERIES = Map.of(
+            "gc", LogAnalysisQueries.LOKI_GC_COUNT
+    );
 
-    public LogAnalysisService(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+    /** 쿼리 키 → 페이로드 / 요약에서 쓰는 지표 이름과 인스턴스(시리즈) 합산 방법 */
+    private record MetricColumn(String key, String name, Aggregation aggregation) {
+    }
+
+    // 페이로드 열 순서
+    private static final List<MetricColumn> COLUMNS = List.of(
+            new MetricColumn("cpu",     "cpuUsage",    Aggregation.MEAN),
+            new MetricColumn("memory",  "memoryUsage", Aggregation.MEAN),
+            new MetricColumn("disk",    "diskUsage",   Aggregation.MEAN),
+            new MetricColumn("traffic", "httpTraffic", Aggregation.SUM),
+            new MetricColumn("gc",      "gcCount",     Aggregation.SUM)
+    );
+
+    public LogAnalysisService(JsonReaders readers,
+                              LokiTailService lokiTailService,
+                              PayloadCompactor payloadCompactor,
+                              AnomalyDetector anomalyDetector,
+                              SingleFlightRegistry singleFlightRegistry,
+                              @Value("${loganalysis.timeout.loki:5000}") long lokiTimeoutMs,
+                              @Value("${loganalysis.timeout.metric:5000}") long metricTimeoutMs) {
+        this.objectMapper = readers.mapper();
+        this.lokiTailService = lokiTailService;
+        this.payloadCompactor = payloadCompactor;
+        this.anomalyDetector = anomalyDetector;
+        this.inFlight = singleFlightRegistry.create("loganalysis.query_range");
+        this.lokiTimeout = Duration.ofMillis(lokiTimeoutMs);
+        this.metricTimeout = Duration.ofMillis(metricTimeoutMs);
     }
 
     /**
      * 1) Loki 로그 조회
+     * 증분 수집기가 준비돼 있으면 메모리 윈도우를 읽고, 아니면 Loki 를 직접 조회한다.
      */
-    public List<Map<String,String>> fetchAndFormatLogs() throws Exception {
-        List<LokiLogDTO> raw = fetchLogs();
-        String rawJson = objectMapper.writeValueAsString(raw);
-        return LogFormatter.formatRawLokiLogs(rawJson);
+    public Mono<List<LogEventDTO>> fetchAndFormatLogs() {
+        if (lokiTailService.isReady()) {
+            return Mono.fromSupplier(() -> lokiTailService.getEvents(Instant.now().minus(Duration.ofMinutes(10))));
+        }
+        return fetchLogsDirect();
     }
 
-    private List<LokiLogDTO> fetchLogs() throws IOException, InterruptedException {
+    // 응답 바이트를 한 번만 읽어 시스템 메트릭 / GC 이벤트로 바로 분류
+    private Mono<List<LogEventDTO>> fetchLogsDirect() {
         Instant end = Instant.now();
         Instant start = end.minus(Duration.ofMinutes(10));
         long startNs = start.toEpochMilli() * 1_000_000;
         long endNs = end.toEpochMilli() * 1_000_000;
 
-        String query = URLEncoder.encode("{app=\"testapp\"}", StandardCharsets.UTF_8);
+        // 분류 대상 라인만 Loki 에서 걸러 받음 (limit 이 관계없는 로그로 소진되지 않도록)
+        String query = URLEncoder.encode(LogAnalysisQueries.LOKI_EVENT_LINES, StandardCharsets.UTF_8);
 
         String endpoint = String.format("%s%s", lokiBaseUrl, LOKI_QUERY_PATH);
 
@@ -74,192 +125,190 @@ public class LogAnalysisService {
                 endpoint, query, startNs, endNs
         );
 
-        System.out.println("Loki URL = " + url);
+        log.debug("Loki URL = {}", url);
 
-        HttpResponse<String> resp = httpClient.send(
-                HttpRequest.newBuilder().uri(URI.create(url)).GET().build(),
-                HttpResponse.BodyHandlers.ofString()
-        );
-        if (resp.statusCode() != 200) {
-            throw new IOException("Loki HTTP status: " + resp.statusCode() + " / " + resp.body());
-        }
-
-        JsonNode root = objectMapper.readTree(resp.body())
-                .path("data").path("result");
-        List<LokiLogDTO> logs = new ArrayList<>();
-        for (JsonNode serie : root) {
-            String stream = serie.path("stream").toString();
-            for (JsonNode entry : serie.path("values")) {
-                LokiLogDTO dto = new LokiLogDTO();
-                dto.setTimestamp(Instant.ofEpochMilli(entry.get(0).asLong() / 1_000_000));
-                dto.setLine(entry.get(1).asText());
-                dto.setStream(stream);
-                logs.add(dto);
+        return send(url, "Loki").map(body -> {
+            try {
+                return LogFormatter.readLokiEvents(new ByteArrayInputStream(body), objectMapper);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-        }
-        return logs;
+        });
     }
 
 
     /**
-     * 2) Prometheus 메트릭 조회 (10분 구간, 30초 스텝)
+     * 2) Prometheus 메트릭 + Loki 집계 지표 조회 (10분 구간, 30초 스텝)
+     * 모든 쿼리를 동시에 요청하고, 시간 초과 / 실패한 지표는 결과에서 빠진다.
      */
-    public Map<String, PrometheusMetricDTO> fetchAllMetrics() throws IOException, InterruptedException {
-        Instant end = Instant.now();
+    public Mono<MetricFrame> fetchAllMetrics() {
+        // 구간 끝을 step 경계로 맞춰 같은 버킷의 요청이 같은 쿼리가 되도록 함
+        Instant end = QueryKeys.alignDown(Instant.now(), METRIC_STEP);
         Instant start = end.minus(Duration.ofMinutes(10));
-        Map<String, PrometheusMetricDTO> results = new HashMap<>();
-        for (var entry : QUERIES.entrySet()) {
-            PrometheusMetricDTO dto = fetchRange(entry.getValue(), start, end);
-            results.put(entry.getKey(), dto);
-        }
-        return results;
+        String prometheusEndpoint = prometheusBaseUrl + PROMETHEUS_QUERY_PATH;
+        String lokiEndpoint = lokiBaseUrl + LOKI_QUERY_PATH;
+        return Flux.merge(
+                        fetchMetrics(QUERIES, prometheusEndpoint, start, end),
+                        fetchMetrics(LOG_QUERIES, lokiEndpoint, start, end))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .map(metrics -> mergeMetrics(metrics, start, end));
     }
 
-    private PrometheusMetricDTO fetchRange(String rawQuery, Instant start, Instant end)
-            throws IOException, InterruptedException {
-        String q = URLEncoder.encode(rawQuery, StandardCharsets.UTF_8);
+    private Flux<Map.Entry<String, MetricFrame.InstanceSeries>> fetchMetrics(
+            Map<String, String> queries, String endpoint, Instant start, Instant end) {
+        return Flux.fromIterable(queries.entrySet())
+                .flatMap(entry -> fetchRange(endpoint, entry.getValue(), start, end)
+                        .timeout(metricTimeout)
+                        .map(dto -> Map.entry(entry.getKey(), dto))
+                        .onErrorResume(e -> {
+                            log.warn("metric '{}' skipped: {}", entry.getKey(), e.toString());
+                            return Mono.empty();
+                        }));
+    }
+
+    private Mono<MetricFrame.InstanceSeries> fetchRange(String endpoint, String rawQuery, Instant start, Instant end) {
+        String normalized = QueryKeys.normalize(rawQuery);
+        String key = endpoint + "|" + normalized + "|" + start.getEpochSecond() + "|" + end.getEpochSecond();
+        return inFlight.execute(key, () -> requestRange(endpoint, rawQuery, start, end));
+    }
 
-        String endpoint = String.format("%s%s", prometheusBaseUrl, PROMETHEUS_QUERY_PATH);
+    private Mono<MetricFrame.InstanceSeries> requestRange(String endpoint, String rawQuery, Instant start, Instant end) {
+        String q = URLEncoder.encode(rawQuery, StandardCharsets.UTF_8);
 
         String url = String.format(
                 "%s?query=%s&start=%d&end=%d&step=30s",
                 endpoint, q, start.getEpochSecond(), end.getEpochSecond()
         );
 
-        System.out.println("Prometheus URL = " + url);
-
-        HttpResponse<String> resp = httpClient.send(
-                HttpRequest.newBuilder().uri(URI.create(url)).GET().build(),
-                HttpResponse.BodyHandlers.ofString()
-        );
-        if (resp.statusCode() != 200) {
-            throw new IOException("Prometheus HTTP status: " + resp.statusCode() + " / " + resp.body());
-        }
+        log.debug("Range query URL = {}", url);
 
-        JsonNode root = objectMapper.readTree(resp.body())
-                .path("data").path("result");
-        PrometheusMetricDTO dto = new PrometheusMetricDTO();
-        Map<String, List<MetricSampleDTO>> map = new HashMap<>();
-        for (JsonNode serie : root) {
-            String instance = serie.path("metric").path("instance").asText();
-            List<MetricSampleDTO> samples = new ArrayList<>();
-            for (JsonNode val : serie.path("values")) {
-                MetricSampleDTO sample = new MetricSampleDTO();
-                sample.setTimestamp(Instant.ofEpochSecond(val.get(0).asLong()));
-                sample.setValue(val.get(1).asDouble());
-                samples.add(sample);
+        return send(url, endpoint).map(body -> {
+            try {
+                return parseRange(body, start, end);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-            map.put(instance, samples);
-        }
-        dto.setMetrics(map);
-        return dto;
+        });
     }
 
+    // 트리 / 샘플 객체 없이 frame 과 같은 step 행의 double 배열에 인스턴스 라벨별로 바로 누적
+    private MetricFrame.InstanceSeries parseRange(byte[] body, Instant start, Instant end) throws IOException {
+        MetricFrame.InstanceSeries series = new MetricFrame.InstanceSeries(start, end, METRIC_STEP);
+        PrometheusResultParser.readSeries(new ByteArrayInputStream(body), objectMapper, (labels, samples, size) ->
+                series.add(labels.getOrDefault("instance", ""), samples, size));
+        return series;
+    }
 
-    /**
-     * 3) 메트릭 병합 (timestamp → {metricName→값} 맵)
-     */
-    public Map<Instant, Map<String, Double>> mergeMetrics(
-            Map<String, PrometheusMetricDTO> metrics
-    ) {
-        Map<String, Map<Instant, Double>> byMetric = new HashMap<>();
-        for (var e : metrics.entrySet()) {
-            Map<Instant, Double> flat = e.getValue().getMetrics().values().stream()
-                    .flatMap(List::stream)
-                    .collect(Collectors.toMap(
-                            MetricSampleDTO::getTimestamp,
-                            MetricSampleDTO::getValue,
-                            (a, b) -> b
-                    ));
-            byMetric.put(e.getKey(), flat);
-        }
-
-        NavigableSet<Instant> allTs = new TreeSet<>(Comparator.naturalOrder());
-        byMetric.values().forEach(flat -> allTs.addAll(flat.keySet()));
-
-        Map<Instant, Map<String, Double>> merged = new LinkedHashMap<>();
-        for (Instant ts : allTs) {
-            Map<String, Double> row = new HashMap<>();
-            for (String name : byMetric.keySet()) {
-                row.put(name, byMetric.get(name).get(ts));
-            }
-            merged.put(ts, row);
-        }
-        return merged;
+    // 비동기 GET (구독 취소 시 요청도 취소됨)
+    private Mono<byte[]> send(String url, String source) {
+        HttpRequest request = HttpRequest.newBuilder().uri(URI.create(url)).GET().build();
+        return Mono.fromFuture(() -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()))
+                .handle((resp, sink) -> {
+                    if (resp.statusCode() != 200) {
+                        sink.error(new IOException(source + " HTTP status: " + resp.statusCode()
+                                + " / " + new String(resp.body(), StandardCharsets.UTF_8)));
+                        return;
+                    }
+                    sink.next(resp.body());
+                });
     }
 
+
     /**
-     * 4) 병합 결과를 MergedMetricSampleDTO 리스트로 평탄화
+     * 3) 메트릭 병합: step 경계 행 × 지표 열 (빈 칸은 NaN)
+     * 인스턴스별 열을 유지하고, 지표 열은 인스턴스를 합친 값. 요약 통계도 이 과정에서 같이 계산된다.
      */
-    public List<MergedMetricsDTO> flatten(
-            Map<Instant, Map<String, Double>> merged
-    ) {
-        return merged.entrySet().stream()
-                .map(e -> new MergedMetricsDTO(
-                        e.getKey(),
-                        e.getValue().get("cpu"),
-                        e.getValue().get("memory"),
-                        e.getValue().get("disk"),
-                        e.getValue().get("traffic")
-                ))
-                .collect(Collectors.toList());
+    public MetricFrame mergeMetrics(Map<String, MetricFrame.InstanceSeries> metrics, Instant start, Instant end) {
+        MetricFrame frame = new MetricFrame(start, end, METRIC_STEP);
+        for (MetricColumn column : COLUMNS) {
+            MetricFrame.InstanceSeries series = metrics.get(column.key());
+            if (series != null) {
+                frame.add(column.name(), series, column.aggregation());
+            }
+        }
+        return frame;
     }
 
     /**
      * 5) 최종 페이로드 생성
+     * 로그와 메트릭을 동시에 수집하므로 지연은 가장 느린 소스(최대 각 timeout)로 제한된다.
+     * 실패하거나 시간 초과된 소스는 missingSources 에 이름을 남기고 나머지로 페이로드를 만든다.
+     * 로컬 탐지기로 이상 징후를 먼저 찾고, 있으면 이상 구간(+앞뒤 문맥)의 시계열 / 로그만 담는다.
      */
-    public ObjectNode buildPayloadJson() throws Exception {
-        Instant now = Instant.now();
-        Instant past = now.minus(Duration.ofMinutes(10));
-
-        // 1) 포맷된 로그
-        List<Map<String,String>> logs = fetchAndFormatLogs();
-
-        // 2) 메트릭
-        var rawMetrics = fetchAllMetrics();
-        var merged     = mergeMetrics(rawMetrics);
-        var series     = flatten(merged);
-
-        // 3) summary
-        Map<String, Map<String, Double>> summary = Map.of(
-                "cpu",    buildStat(merged, "cpu"),
-                "memory", buildStat(merged, "memory"),
-                "disk",   buildStat(merged, "disk"),
-                "network",buildStat(merged, "network")
-        );
-
-        Map<String,Object> payload = Map.of(
-                "window", Map.of("from", past, "to", now),
-                "metrics", Map.of("summary", summary, "series", series),
-                "logs", logs
-        );
-
-        return objectMapper.valueToTree(payload);
-    }
-
-    private Map<String, Double> buildStat(Map<Instant, Map<String, Double>> merged, String key) {
-        DoubleSummaryStatistics stats = merged.values().stream()
-                .map(m -> m.get(key))
-                .filter(Objects::nonNull)
-                .mapToDouble(Double::doubleValue)
-                .summaryStatistics();
-        return Map.of(
-                "avg", stats.getAverage(),
-                "max", stats.getMax(),
-                "min", stats.getMin()
-        );
-    }
-
-    public JsonNode getLastAnalysis() {
-        return lastAnalysis;
-    }
+    public Mono<AnalysisPayloadDTO> buildPayloadJson() {
+        // 1) 포맷된 로그 (실패 시 빈 Optional)
+        Mono<Optional<List<LogEventDTO>>> logs = fetchAndFormatLogs()
+                .timeout(lokiTimeout)
+                .map(Optional::of)
+                .onErrorResume(e -> {
+                    log.warn("logs skipped: {}", e.toString());
+                    return Mono.just(Optional.empty());
+                });
+
+        // 2) 메트릭 (병합 + 요약 통계까지)
+        Mono<MetricFrame> metrics = fetchAllMetrics();
+
+        return Mono.zip(logs, metrics).map(tuple -> {
+            MetricFrame frame = tuple.getT2();
+
+            List<String> missing = new ArrayList<>();
+            if (tuple.getT1().isEmpty()) {
+                missing.add("logs");
+            }
+            COLUMNS.stream()
+                    .filter(c -> !frame.columns().containsKey(c.name()))
+                    .map(MetricColumn::key)
+                    .sorted()
+                    .forEach(missing::add);
+
+            // 3) summary (지표 이름 기준, 받지 못한 지표는 값이 없는 통계)
+            Map<String, Map<String, Double>> summary = new LinkedHashMap<>();
+            for (MetricColumn column : COLUMNS) {
+                summary.put(column.name(), frame.stat(column.name()));
+            }
 
-    public void setLastAnalysis(JsonNode analysis) {
-        this.lastAnalysis = analysis;
+            // 4) 로컬 이상 탐지 → 이상 구간만 남김
+            AnomalyDetector.Result detection = anomalyDetector.detect(frame);
+            List<LogEventDTO> logEvents = tuple.getT1().orElse(List.of());
+            BitSet rows = frame.presentRows();
+            boolean hasData = !rows.isEmpty();
+            List<LogEventDTO> focusLogs = logEvents;
+            if (!detection.anomalies().isEmpty()) {
+                rows.and(detection.focusRows());
+                focusLogs = withinFocus(logEvents, frame, detection.focusRows());
+            }
+            boolean healthy = detection.anomalies().isEmpty() && missing.isEmpty() && hasData;
+
+            // 5) CSV 시계열 / 로그 묶음으로 압축해 토큰 예산 안에 맞춤
+            // (window / 행 오프셋 t 는 frame 의 step 경계 구간 기준)
+            ObjectNode payload = payloadCompactor.compact(frame.start(), frame.end(), summary, frame, rows,
+                    focusLogs, missing, detection.anomalies());
+            return new AnalysisPayloadDTO(payload, detection.anomalies(), healthy, summary, focusLogs, missing);
+        });
     }
 
-    public void clearLastAnalysis() {
-        this.lastAnalysis = null;
+    // 이상 구간(연속된 focus 행) 시간 범위 ± 1 step 안의 로그만
+    private List<LogEventDTO> withinFocus(List<LogEventDTO> logs, MetricFrame frame, BitSet focus) {
+        List<Instant[]> ranges = new ArrayList<>();
+        int start = focus.nextSetBit(0);
+        while (start >= 0 && start < frame.size()) {
+            int end = Math.min(focus.nextClearBit(start), frame.size()) - 1;
+            ranges.add(new Instant[]{
+                    frame.timestamp(start).minus(METRIC_STEP),
+                    frame.timestamp(end).plus(METRIC_STEP)
+            });
+            start = focus.nextSetBit(end + 1);
+        }
+        List<LogEventDTO> result = new ArrayList<>();
+        for (LogEventDTO event : logs) {
+            for (Instant[] range : ranges) {
+                if (!event.getTimestamp().isBefore(range[0]) && !event.getTimestamp().isAfter(range[1])) {
+                    result.add(event);
+                    break;
+                }
+            }
+        }
+        return result;
     }
 
 }
@@ -0,0 +1,181 @@
+package com.kopo.vita.loganalysis.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kopo.vita.loganalysis.dto.LogEventDTO;
+import com.kopo.vita.loganalysis.query.LogAnalysisQueries;
+import com.kopo.vita.loganalysis.util.LogFormatter;
+import com.kopo.vita.loganalysis.util.PodLogWindow;
+import com.kopo.vita.loganalysis.util.TailCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * 분석 대상 로그를 주기적으로 증분 수집해 파드별 윈도우에 쌓아 두는 수집기.
+ * 마지막으로 받은 시각 이후만 forward 방향으로 조회하고, limit 에 걸리면 다음 페이지를 이어서 받는다.
+ * 분석 요청은 Loki 를 다시 조회하지 않고 이 윈도우를 읽는다.
+ * Loki 호출은 연결 / 요청 제한 시간을 두어 응답이 없더라도 스케줄러 스레드를 붙잡지 않는다.
+ */
+@Service
+@Slf4j
+public class LokiTailService {
+
+    private static final String LOKI_QUERY_PATH = "/loki/api/v1/query_range";
+
+    private final String lokiBaseUrl;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final boolean enabled;
+    private final Duration interval;
+    private final Duration retention;
+    private final Duration ingestDelay;
+    private final int pageLimit;
+    private final int maxPages;
+    private final PodLogWindow window;
+
+    // 다음 조회 시작 시각 + 경계 시각 중복 제거 (poll 스레드에서만 사용)
+    private final TailCursor cursor = new TailCursor();
+    // 보관 기간 전체를 한 번이라도 다 받았는지
+    private volatile boolean caughtUp;
+    private volatile Instant lastSuccess;
+
+    public LokiTailService(@Value("${loki.base-url}") String lokiBaseUrl,
+                           ObjectMapper objectMapper,
+                           @Value("${loganalysis.tail.enabled:true}") boolean enabled,
+                           @Value("${loganalysis.tail.interval:5000}") long intervalMs,
+                           @Value("${loganalysis.tail.retention:600000}") long retentionMs,
+                           @Value("${loganalysis.tail.ingest-delay:2000}") long ingestDelayMs,
+                           @Value("${loganalysis.tail.max-per-pod:5000}") int maxPerPod,
+                           @Value("${loganalysis.tail.page-limit:1000}") int pageLimit,
+                           @Value("${loganalysis.tail.max-pages:20}") int maxPages,
+                           @Value("${loganalysis.tail.timeout:5000}") long timeoutMs) {
+        this.lokiBaseUrl = lokiBaseUrl;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.interval = Duration.ofMillis(intervalMs);
+        this.retention = Duration.ofMillis(retentionMs);
+        this.ingestDelay = Duration.ofMillis(ingestDelayMs);
+        this.pageLimit = pageLimit;
+        this.maxPages = maxPages;
+        this.requestTimeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(requestTimeout)
+                .build();
+        this.window = new PodLogWindow(retention, maxPerPod);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${loganalysis.tail.interval:5000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        cursor.advanceTo(toNanos(now.minus(retention)));
+        try {
+            // 아직 Loki 에 적재 중일 수 있는 최근 구간은 다음 주기에 받음
+            long endNs = toNanos(now.minus(ingestDelay));
+            int pages = 0;
+            int received = 0;
+            while (cursor.position() < endNs) {
+                received = fetchPage(cursor.position(), endNs);
+                pages++;
+                if (received < pageLimit || pages >= maxPages) {
+                    break;
+                }
+            }
+
+            // 최대 페이지 수에서 끊겼으면 다음 주기에 이어서 받음
+            caughtUp = received < pageLimit;
+            lastSuccess = now;
+        } catch (Exception e) {
+            // 실패 시 커서를 유지하고 다음 주기에 같은 구간부터 다시 조회
+            log.warn("loki tail failed: {}", e.getMessage());
+        }
+        window.evictBefore(now);
+    }
+
+    // [startNs, endNs) 구간을 forward 로 한 페이지 조회, 받은 엔트리 수 반환
+    private int fetchPage(long startNs, long endNs) throws IOException, InterruptedException {
+        String query = URLEncoder.encode(LogAnalysisQueries.LOKI_EVENT_LINES, StandardCharsets.UTF_8);
+        String url = String.format(
+                "%s%s?query=%s&start=%d&end=%d&limit=%d&direction=forward",
+                lokiBaseUrl, LOKI_QUERY_PATH, query, startNs, endNs, pageLimit
+        );
+
+        HttpResponse<InputStream> resp = httpClient.send(
+                HttpRequest.newBuilder().uri(URI.create(url)).timeout(requestTimeout).GET().build(),
+                HttpResponse.BodyHandlers.ofInputStream()
+        );
+        if (resp.statusCode() != 200) {
+            resp.body().close();
+            throw new IOException("Loki HTTP status: " + resp.statusCode());
+        }
+
+        int[] received = {0};
+        List<LogEventDTO> events = new ArrayList<>();
+        cursor.beginPage();
+        try (InputStream body = resp.body()) {
+            LogFormatter.readLokiEntries(body, objectMapper, (labels, stream, ns, line) -> {
+                received[0]++;
+                if (!cursor.accept(ns, labels.toString(), line)) {
+                    return;
+                }
+                LogEventDTO event = LogFormatter.classify(Instant.ofEpochMilli(ns / 1_000_000), stream, line);
+                if (event != null) {
+                    events.add(event);
+                }
+            });
+        }
+        // 페이지를 끝까지 읽었을 때만 반영 (중간에 실패하면 같은 구간을 다시 조회)
+        // 응답은 스트림별로만 시간순이므로 시각 순으로 합쳐서 넣음 (같은 시각은 응답 순서 유지)
+        events.sort(Comparator.comparing(LogEventDTO::getTimestamp));
+        events.forEach(window::add);
+        boolean advanced = cursor.endPage();
+        if (!advanced && received[0] >= pageLimit) {
+            // 한 페이지가 전부 같은 ns 라 start 를 그대로 두면 계속 같은 페이지를 받게 됨
+            log.warn("loki tail: more than {} entries at {} ns, skipping the rest", pageLimit, startNs);
+            cursor.skipBoundary();
+        }
+        return received[0];
+    }
+
+    /**
+     * 메모리 윈도우로 분석해도 되는 상태인지 (보관 구간을 다 받았고 최근 수집이 성공)
+     */
+    public boolean isReady() {
+        Instant success = lastSuccess;
+        return enabled && caughtUp && success != null
+                && success.isAfter(Instant.now().minus(interval.multipliedBy(3)));
+    }
+
+    /** from 이후 이벤트 (시간순) */
+    public List<LogEventDTO> getEvents(Instant from) {
+        return window.snapshot(from);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(window.getStats());
+        stats.put("boundaryEntries", cursor.boundarySize());
+        stats.put("ready", isReady());
+        stats.put("lastSuccess", lastSuccess);
+        return stats;
+    }
+
+    private static long toNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+}
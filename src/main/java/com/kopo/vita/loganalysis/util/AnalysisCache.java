@@ -0,0 +1,128 @@
+package com.kopo.vita.loganalysis.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 분석 결과 캐시 (키: 페이로드 fingerprint).
+ * 항목마다 TTL 이 있고, 개수가 상한을 넘으면 가장 오래 안 쓴 항목부터 제거(LRU).
+ * 각 항목은 분석 대상 namespace / deployment 를 기억해 두고 해당 범위가 바뀌면 무효화된다.
+ */
+public class AnalysisCache {
+
+    private static class Entry {
+        final JsonNode analysis;
+        final Instant createdAt;
+        final String namespace;
+        final String deployment;
+
+        Entry(JsonNode analysis, Instant createdAt, String namespace, String deployment) {
+            this.analysis = analysis;
+            this.createdAt = createdAt;
+            this.namespace = namespace;
+            this.deployment = deployment;
+        }
+    }
+
+    private final Duration ttl;
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // 가장 최근에 저장 / 조회된 항목 (GET /api/log/analyze 용, entries.get 을 거치지 않아 LRU 순서에 영향 없음)
+    private String latestKey;
+    private Entry latest;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+
+    public AnalysisCache(Duration ttl, int maxEntries) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+    }
+
+    /** 유효한 분석 결과 (없거나 만료됐으면 null) */
+    public synchronized JsonNode get(String fingerprint) {
+        Entry entry = live(fingerprint);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        latestKey = fingerprint;
+        latest = entry;
+        return entry.analysis;
+    }
+
+    public synchronized void put(String fingerprint, JsonNode analysis, String namespace, String deployment) {
+        Entry entry = new Entry(analysis, Instant.now(), namespace, deployment);
+        entries.put(fingerprint, entry);
+        latestKey = fingerprint;
+        latest = entry;
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+            evicted.increment();
+        }
+    }
+
+    /** 가장 최근에 저장된 분석 결과 (무효화 / 만료됐으면 null, hit/miss 에 집계하지 않음) */
+    public synchronized JsonNode latest() {
+        // containsKey 는 접근 순서를 바꾸지 않음 (제거 / 무효화 여부만 확인)
+        if (latest == null || !entries.containsKey(latestKey) || isExpired(latest)) {
+            return null;
+        }
+        return latest.analysis;
+    }
+
+    /**
+     * namespace (+ deployment) 범위에 걸친 항목 제거. deployment 가 null 이면 namespace 전체
+     * @return 제거된 항목 수
+     */
+    public synchronized int invalidate(String namespace, String deployment) {
+        int removed = 0;
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            boolean sameNamespace = entry.namespace == null || entry.namespace.equals(namespace);
+            boolean sameDeployment = deployment == null || entry.deployment == null || entry.deployment.equals(deployment);
+            if (sameNamespace && sameDeployment) {
+                it.remove();
+                removed++;
+            }
+        }
+        invalidated.add(removed);
+        return removed;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("expired", expired.sum());
+        stats.put("evicted", evicted.sum());
+        stats.put("invalidated", invalidated.sum());
+        return stats;
+    }
+
+    private Entry live(String fingerprint) {
+        Entry entry = entries.get(fingerprint);
+        if (entry != null && isExpired(entry)) {
+            entries.remove(fingerprint);
+            expired.increment();
+            return null;
+        }
+        return entry;
+    }
+
+    private boolean isExpired(Entry entry) {
+        return entry.createdAt.plus(ttl).isBefore(Instant.now());
+    }
+}
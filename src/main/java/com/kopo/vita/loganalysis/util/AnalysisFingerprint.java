@@ -0,0 +1,84 @@
+package com.kopo.vita.loganalysis.util;
+
+import com.kopo.vita.loganalysis.dto.AnalysisPayloadDTO;
+import com.kopo.vita.loganalysis.dto.AnomalyDTO;
+import com.kopo.vita.loganalysis.dto.GcLogDTO;
+import com.kopo.vita.loganalysis.dto.LogEventDTO;
+import com.kopo.vita.loganalysis.dto.SystemMetricLogDTO;
+import lombok.experimental.UtilityClass;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * 분석 페이로드의 정규화 fingerprint.
+ * 요약 통계는 로그 스케일 구간으로 양자화하고, 이상 징후는 (지표, 종류) 만, 로그는 (이벤트 종류, 파드) 만 남겨
+ * 안정된 시스템에서 몇 초 간격으로 만든 페이로드가 같은 값을 갖도록 한다.
+ */
+@UtilityClass
+public class AnalysisFingerprint {
+
+    /**
+     * @param quantum 양자화 구간 폭 (0.1 이면 값이 약 10% 바뀔 때 구간이 바뀜)
+     */
+    public String of(AnalysisPayloadDTO input, double quantum) {
+        StringBuilder sb = new StringBuilder();
+
+        // 1) 요약 통계 (지표 / 통계 이름 순)
+        new TreeMap<>(input.getSummary()).forEach((metric, stat) -> {
+            sb.append(metric).append('{');
+            new TreeMap<>(stat).forEach((name, value) ->
+                    sb.append(name).append('=').append(quantize(value, quantum)).append(';'));
+            sb.append('}');
+        });
+
+        // 2) 이상 징후 종류
+        sb.append("|anomalies:");
+        SortedSet<String> anomalies = new TreeSet<>();
+        for (AnomalyDTO a : input.getAnomalies()) {
+            anomalies.add(a.getMetric() + ":" + a.getType());
+        }
+        sb.append(String.join(",", anomalies));
+
+        // 3) 로그 이벤트 종류
+        sb.append("|logs:");
+        SortedSet<String> events = new TreeSet<>();
+        for (LogEventDTO event : input.getLogs()) {
+            if (event instanceof GcLogDTO gc) {
+                events.add("gc:" + gc.getGcType() + "@" + gc.getPod());
+            } else if (event instanceof SystemMetricLogDTO) {
+                events.add("metric@" + event.getPod());
+            }
+        }
+        sb.append(String.join(",", events));
+
+        // 4) 빠진 소스
+        sb.append("|missing:").append(String.join(",", new TreeSet<>(input.getMissingSources())));
+
+        return sha256(sb.toString());
+    }
+
+    // 부호 + log(1+quantum) 단위 구간 번호 (0 근처와 NaN 은 고정 값)
+    private String quantize(Double value, double quantum) {
+        if (value == null || value.isNaN() || value.isInfinite()) {
+            return "-";
+        }
+        double abs = Math.abs(value);
+        if (abs < 0.01) {
+            return "0";
+        }
+        long bucket = Math.round(Math.log(abs) / Math.log1p(quantum));
+        return (value < 0 ? "-" : "") + bucket;
+    }
+
+    private String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
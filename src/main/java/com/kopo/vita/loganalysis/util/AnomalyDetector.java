@@ -0,0 +1,166 @@
+package com.kopo.vita.loganalysis.util;
+
+import com.kopo.vita.loganalysis.dto.AnomalyDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * 병합된 메트릭 열을 지표별로 한 번씩 훑으며 이상 징후를 찾는 로컬 탐지기.
+ * 지표마다 누적 평균 / 분산(Welford)과 EWMA 를 갱신하면서, 현재 값을 그 이전까지의 통계와 비교한다.
+ * - SPIKE: EWMA 의 spikeFactor 배 이상
+ * - DEVIATION: 평균 ± sigma × 표준편차 밖
+ * - TREND_UP / TREND_DOWN: trendLength 번 연속 증가 / 감소하면서 시작값 대비 trendMinChange 이상,
+ *   그리고 이전까지의 표준편차 × trendSigma 보다 크게 변화 (힙 톱니파처럼 평소 진폭 안의 오르내림은 제외).
+ *   시작값이 0 근처인 추세(gcCount 0 → n 등)는 변화율이 의미 없으므로 보지 않는다.
+ */
+@Component
+public class AnomalyDetector {
+
+    // 이 값 이하의 추세 시작값은 0 으로 본다
+    private static final double NEAR_ZERO = 1e-9;
+
+    private final double spikeFactor;
+    private final double sigma;
+    private final int trendLength;
+    private final double trendMinChange;
+    private final double trendSigma;
+    private final int minSamples;
+    private final double ewmaAlpha;
+    private final int contextPoints;
+
+    public AnomalyDetector(@Value("${loganalysis.anomaly.spike-factor:5.0}") double spikeFactor,
+                           @Value("${loganalysis.anomaly.sigma:3.0}") double sigma,
+                           @Value("${loganalysis.anomaly.trend-length:3}") int trendLength,
+                           @Value("${loganalysis.anomaly.trend-min-change:0.1}") double trendMinChange,
+                           @Value("${loganalysis.anomaly.trend-sigma:3.0}") double trendSigma,
+                           @Value("${loganalysis.anomaly.min-samples:5}") int minSamples,
+                           @Value("${loganalysis.anomaly.ewma-alpha:0.3}") double ewmaAlpha,
+                           @Value("${loganalysis.anomaly.context-points:2}") int contextPoints) {
+        this.spikeFactor = spikeFactor;
+        this.sigma = sigma;
+        this.trendLength = trendLength;
+        this.trendMinChange = trendMinChange;
+        this.trendSigma = trendSigma;
+        this.minSamples = minSamples;
+        this.ewmaAlpha = ewmaAlpha;
+        this.contextPoints = contextPoints;
+    }
+
+    /**
+     * @param anomalies 탐지된 이상 징후 (시간순)
+     * @param focusRows 이상 구간 + 앞뒤 contextPoints 행
+     */
+    public record Result(List<AnomalyDTO> anomalies, BitSet focusRows) {
+    }
+
+    // 지표 하나의 누적 상태
+    private static class State {
+        long n;
+        double mean;
+        double m2;
+        double ewma;
+        double prev = Double.NaN;
+        int prevRow;
+        int streakDir;
+        int streakLen;
+        double streakStartValue;
+        int streakStartRow;
+    }
+
+    /** 빈 칸(NaN)은 건너뛰고 값이 있는 행끼리 비교한다 */
+    public Result detect(MetricFrame frame) {
+        List<AnomalyDTO> anomalies = new ArrayList<>();
+        BitSet focus = new BitSet(frame.size());
+
+        for (var metric : frame.columns().entrySet()) {
+            double[] column = metric.getValue();
+            State s = new State();
+            for (int row = 0; row < column.length; row++) {
+                double v = column[row];
+                if (Double.isNaN(v) || Double.isInfinite(v)) {
+                    continue;
+                }
+                AnomalyDTO found = check(metric.getKey(), frame.timestamp(row), row, v, s, focus);
+                if (found != null) {
+                    anomalies.add(found);
+                }
+                update(s, v, row);
+            }
+        }
+        // 지표 순서와 관계없이 시간순 (같은 시각은 지표 열 순서 유지)
+        anomalies.sort(Comparator.comparing(AnomalyDTO::getTimestamp));
+        return new Result(anomalies, focus);
+    }
+
+    // 현재 값을 이전까지의 통계와 비교 (지표/행당 최대 1건, SPIKE > DEVIATION > TREND 순)
+    private AnomalyDTO check(String metric, Instant ts, int row, double v, State s, BitSet focus) {
+        if (s.n < minSamples) {
+            return null;
+        }
+        if (s.ewma > 0 && v >= spikeFactor * s.ewma) {
+            mark(focus, row, row);
+            return anomaly(metric, "SPIKE", ts, v, s.ewma);
+        }
+        double std = Math.sqrt(s.m2 / (s.n - 1));
+        if (std > 0 && Math.abs(v - s.mean) > sigma * std) {
+            mark(focus, row, row);
+            return anomaly(metric, "DEVIATION", ts, v, s.mean);
+        }
+        if (!Double.isNaN(s.prev)) {
+            int dir = Double.compare(v, s.prev);
+            int len = (dir != 0 && dir == s.streakDir) ? s.streakLen + 1 : (dir != 0 ? 1 : 0);
+            double start = len == 1 ? s.prev : s.streakStartValue;
+            double change = Math.abs(v - start);
+            // 추세는 길이를 처음 채운 시점에 한 번만 보고
+            if (len == trendLength
+                    && Math.abs(start) > NEAR_ZERO
+                    && change >= trendMinChange * Math.abs(start)
+                    && change > trendSigma * std) {
+                int startRow = len == 1 ? s.prevRow : s.streakStartRow;
+                mark(focus, startRow, row);
+                return anomaly(metric, dir > 0 ? "TREND_UP" : "TREND_DOWN", ts, v, start);
+            }
+        }
+        return null;
+    }
+
+    // Welford 누적 평균 / 분산, EWMA, 연속 증감 상태 갱신
+    private void update(State s, double v, int row) {
+        s.n++;
+        double delta = v - s.mean;
+        s.mean += delta / s.n;
+        s.m2 += delta * (v - s.mean);
+        s.ewma = s.n == 1 ? v : ewmaAlpha * v + (1 - ewmaAlpha) * s.ewma;
+
+        if (!Double.isNaN(s.prev)) {
+            int dir = Double.compare(v, s.prev);
+            if (dir != 0 && dir == s.streakDir) {
+                s.streakLen++;
+            } else {
+                s.streakDir = dir;
+                s.streakLen = dir != 0 ? 1 : 0;
+                s.streakStartValue = s.prev;
+                s.streakStartRow = s.prevRow;
+            }
+        }
+        s.prev = v;
+        s.prevRow = row;
+    }
+
+    private void mark(BitSet focus, int from, int to) {
+        focus.set(Math.max(0, from - contextPoints), to + contextPoints + 1);
+    }
+
+    private static AnomalyDTO anomaly(String metric, String type, Instant ts, double value, double baseline) {
+        return AnomalyDTO.builder()
+                .metric(metric)
+                .type(type)
+                .timestamp(ts)
+                .value(value)
+                .baseline(baseline)
+                .build();
+    }
+}
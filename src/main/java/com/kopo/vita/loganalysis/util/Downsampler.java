@@ -0,0 +1,89 @@
+package com.kopo.vita.loganalysis.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Arrays;
+
+/**
+ * 시계열 다운샘플링 (Largest-Triangle-Three-Buckets).
+ * 구간마다 이전 선택점 / 다음 구간 평균점과 만드는 삼각형 넓이가 가장 큰 점을 남겨 스파이크 같은 모양을 유지한다.
+ */
+@UtilityClass
+public class Downsampler {
+
+    /**
+     * 남길 점의 인덱스를 오름차순으로 반환 (첫 점과 마지막 점은 항상 포함).
+     * y 의 NaN 은 직전 값으로 보고 계산한다.
+     */
+    public int[] lttb(double[] x, double[] y, int size, int threshold) {
+        if (threshold >= size) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        if (threshold < 3) {
+            // 처음 / 끝만
+            return new int[]{0, size - 1};
+        }
+
+        double[] filled = fillNaN(y, size);
+        int[] selected = new int[threshold];
+        int count = 0;
+        selected[count++] = 0;
+
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int a = 0;
+        for (int i = 0; i < threshold - 2; i++) {
+            // 다음 구간 평균점
+            int nextStart = (int) Math.floor((i + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((i + 2) * bucketSize) + 1, size);
+            double avgX = 0;
+            double avgY = 0;
+            int nextLen = nextEnd - nextStart;
+            if (nextLen <= 0) {
+                avgX = x[size - 1];
+                avgY = filled[size - 1];
+            } else {
+                for (int j = nextStart; j < nextEnd; j++) {
+                    avgX += x[j];
+                    avgY += filled[j];
+                }
+                avgX /= nextLen;
+                avgY /= nextLen;
+            }
+
+            // 현재 구간에서 삼각형 넓이가 가장 큰 점
+            int start = (int) Math.floor(i * bucketSize) + 1;
+            int end = (int) Math.floor((i + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int maxIndex = start;
+            for (int j = start; j < end; j++) {
+                double area = Math.abs((x[a] - avgX) * (filled[j] - filled[a])
+                        - (x[a] - x[j]) * (avgY - filled[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = j;
+                }
+            }
+            selected[count++] = maxIndex;
+            a = maxIndex;
+        }
+        selected[count++] = size - 1;
+        return Arrays.copyOf(selected, count);
+    }
+
+    private double[] fillNaN(double[] y, int size) {
+        double[] filled = Arrays.copyOf(y, size);
+        double last = 0;
+        for (int i = 0; i < size; i++) {
+            if (Double.isNaN(filled[i])) {
+                filled[i] = last;
+            } else {
+                last = filled[i];
+            }
+        }
+        return filled;
+    }
+}
@@ -1,79 +1,288 @@
 package com.kopo.vita.loganalysis.util;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kopo.vita.loganalysis.dto.GcLogDTO;
+import com.kopo.vita.loganalysis.dto.LogEventDTO;
+import com.kopo.vita.loganalysis.dto.SystemMetricLogDTO;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
+/**
+ * Loki query_range 응답을 한 번에 읽어 분류된 로그 이벤트로 변환.
+ * JSON 은 토큰 단위로 한 번만 읽고, 스트림 라벨은 스트림당 한 번만 해석한다.
+ */
 public class LogFormatter {
-    public static final ObjectMapper MAPPER = new ObjectMapper();
-
-    // CPU, JVM 메모리, 스레드 수, 프로세서 수, 디스크 사용률
-    public static List<Map<String, String>> formatRawLokiLogs(String rawJsonArray) throws Exception {
-        JsonNode arr = MAPPER.readTree(rawJsonArray);
-
-        // 1) 시스템 메트릭 패턴
-        Pattern METRIC_PATTERN = Pattern.compile(
-                "CPU 부하:\\s*([\\d.]+),\\s*JVM 메모리:\\s*([\\d.]+)%,.*?스레드 수:\\s*(\\d+),\\s*프로세서 수:\\s*(\\d+),.*?디스크:\\s*[^:]+:\\s*([\\d.]+)%"
-        );
-        // 2) GC 로그 패턴
-        Pattern GC_PATTERN = Pattern.compile(
-                "\\[(?<uptime>[\\d.]+s)]\\[info.+?] GC\\((?<id>\\d+)\\) (?<type>[^\\[]+)\\s*(?<detail>.+)"
-        );
-
-        return StreamSupport.stream(arr.spliterator(), false)
-                .map(node -> {
-                    String ts = node.path("timestamp").asText();
-                    String streamJson = node.path("stream").asText("{}");
-                    Map<String,String> labels = null;
-                    try {
-                        labels = MAPPER.readValue(streamJson, new TypeReference<>(){});
-                    } catch (JsonProcessingException e) {
-                        throw new RuntimeException(e);
-                    }
-                    String line = node.path("line").asText().replaceAll("[\\r\\n]", "");
-                    // 1) 시스템 메트릭 매칭
-                    Matcher m1 = METRIC_PATTERN.matcher(line);
-                    if (m1.find()) {
-                        Map<String,String> out = new LinkedHashMap<>();
-                        out.put("timestamp", ts);
-                        out.put("app", labels.get("app"));
-                        out.put("pod", extractPodName(labels.get("filename")));
-                        out.put("cpuLoad", m1.group(1));
-                        out.put("jvmMemory", m1.group(2));
-                        out.put("threadCount", m1.group(3));
-                        out.put("processorCount", m1.group(4));
-                        out.put("diskUsage", m1.group(5));
-                        return out;
-                    }
-                    // 2) GC 로그 매칭
-                    Matcher m2 = GC_PATTERN.matcher(line);
-                    if (m2.find()) {
-                        Map<String,String> out = new LinkedHashMap<>();
-                        out.put("timestamp", ts);
-                        out.put("app", labels.get("app"));
-                        out.put("pod", extractPodName(labels.get("filename")));
-                        out.put("gcUptime", m2.group("uptime"));
-                        out.put("gcId", m2.group("id"));
-                        out.put("gcType", m2.group("type").trim());
-                        out.put("gcDetail", m2.group("detail").trim());
-                        return out;
+
+    // 1) 시스템 메트릭 패턴 (CPU, JVM 메모리, 스레드 수, 프로세서 수, 디스크 사용률)
+    private static final Pattern METRIC_PATTERN = Pattern.compile(
+            "CPU 부하:\\s*([\\d.]+),\\s*JVM 메모리:\\s*([\\d.]+)%,.*?스레드 수:\\s*(\\d+),\\s*프로세서 수:\\s*(\\d+),.*?디스크:\\s*[^:]+:\\s*([\\d.]+)%"
+    );
+    // 2) GC 로그 패턴
+    private static final Pattern GC_PATTERN = Pattern.compile(
+            "\\[(?<uptime>[\\d.]+s)]\\[info.+?] GC\\((?<id>\\d+)\\) (?<type>[^\\[]+)\\s*(?<detail>.+)"
+    );
+
+    // 각 패턴이 매칭되려면 반드시 포함해야 하는 리터럴 (정규식 전에 indexOf 로 먼저 거름)
+    private static final String METRIC_MARKER = "CPU 부하";
+    private static final String GC_MARKER = "GC(";
+    private static final List<String> LINE_MARKERS = List.of(METRIC_MARKER, GC_MARKER);
+    private static final String REGEX_META = "\\.^$|?*+()[]{}";
+
+    /** 스트림 라벨에서 뽑은 값 (같은 스트림의 라인끼리 공유) */
+    public record StreamInfo(String app, String pod) {
+
+        public static StreamInfo of(Map<String, String> labels) {
+            return new StreamInfo(labels.get("app"), extractPodName(labels.get("filename")));
+        }
+    }
+
+    /**
+     * Loki 로그 엔트리마다 호출되는 콜백. labels 와 stream 은 같은 스트림의 엔트리끼리 같은 인스턴스를 공유한다.
+     */
+    @FunctionalInterface
+    public interface EntryHandler {
+        void accept(Map<String, String> labels, StreamInfo stream, long timestampNs, String line);
+    }
+
+    /**
+     * Loki 응답 스트림에서 data.result 를 읽어 분류된 이벤트 목록을 반환 (응답 순서 유지).
+     * 분류 대상 리터럴이 없는 라인은 읽는 즉시 버린다.
+     */
+    public static List<LogEventDTO> readLokiEvents(InputStream in, ObjectMapper mapper) throws IOException {
+        List<LogEventDTO> events = new ArrayList<>();
+        readLokiEntries(in, mapper, true, (labels, stream, ns, line) -> {
+            LogEventDTO event = classify(Instant.ofEpochMilli(ns / 1_000_000), stream, line);
+            if (event != null) {
+                events.add(event);
+            }
+        });
+        return events;
+    }
+
+    /**
+     * Loki 응답 스트림에서 data.result 를 읽어 모든 엔트리를 handler 로 전달 (분류 전 원본 라인)
+     */
+    public static void readLokiEntries(InputStream in, ObjectMapper mapper, EntryHandler handler) throws IOException {
+        readLokiEntries(in, mapper, false, handler);
+    }
+
+    // candidatesOnly 면 isCandidate 를 통과한 라인만 모아서 전달
+    private static void readLokiEntries(InputStream in, ObjectMapper mapper, boolean candidatesOnly,
+                                        EntryHandler handler) throws IOException {
+        try (JsonParser p = mapper.createParser(in)) {
+            if (!moveToResult(p) || p.currentToken() != JsonToken.START_ARRAY) {
+                return;
+            }
+            while (p.nextToken() == JsonToken.START_OBJECT) {
+                readStream(p, candidatesOnly, handler);
+            }
+        }
+    }
+
+    // root → data → result 위치까지 이동 (result 값 토큰에 멈춤)
+    private static boolean moveToResult(JsonParser p) throws IOException {
+        if (p.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            if (!"data".equals(field) || p.currentToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                continue;
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String dataField = p.currentName();
+                p.nextToken();
+                if ("result".equals(dataField)) {
+                    return true;
+                }
+                p.skipChildren();
+            }
+        }
+        return false;
+    }
+
+    // result 의 스트림 하나: { "stream": {...}, "values": [[ "<ns>", "<line>" ], ...] }
+    // 라인을 모아 두었다가 라벨을 읽은 뒤 전달 (stream 필드가 values 뒤에 오더라도 처리)
+    private static void readStream(JsonParser p, boolean candidatesOnly, EntryHandler handler) throws IOException {
+        Map<String, String> labels = Collections.emptyMap();
+        List<String> lines = new ArrayList<>();
+        long[] timestamps = new long[16];
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "stream" -> labels = readLabels(p);
+                case "values" -> {
+                    while (p.nextToken() == JsonToken.START_ARRAY) {
+                        p.nextToken();
+                        String ns = p.getText();
+                        p.nextToken();
+                        String line = p.getText();
+                        // 닫는 괄호까지 소비 (structured metadata 등 추가 요소는 건너뜀)
+                        JsonToken t;
+                        while ((t = p.nextToken()) != null && t != JsonToken.END_ARRAY) {
+                            p.skipChildren();
+                        }
+                        if (line == null || (candidatesOnly && !isCandidate(line))) {
+                            continue;
+                        }
+                        if (lines.size() == timestamps.length) {
+                            timestamps = Arrays.copyOf(timestamps, timestamps.length * 2);
+                        }
+                        timestamps[lines.size()] = parseNanos(ns);
+                        lines.add(line);
                     }
-                    // 다른 로그는 무시
-                    return null;
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+                }
+                default -> p.skipChildren();
+            }
+        }
+
+        if (lines.isEmpty()) {
+            return;
+        }
+        StreamInfo stream = StreamInfo.of(labels);
+        for (int i = 0; i < lines.size(); i++) {
+            handler.accept(labels, stream, timestamps[i], lines.get(i));
+        }
+    }
+
+    private static Map<String, String> readLabels(JsonParser p) throws IOException {
+        Map<String, String> labels = new TreeMap<>();
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return labels;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            p.nextToken();
+            labels.put(name, p.getText());
+        }
+        return labels;
+    }
+
+    /**
+     * LogQL 라인 필터(|~)용 정규식. 분류 대상 리터럴 중 하나라도 포함한 라인만 Loki 에서 내려받도록 한다.
+     */
+    public static String lineFilterRegex() {
+        StringBuilder sb = new StringBuilder();
+        for (String marker : LINE_MARKERS) {
+            if (sb.length() > 0) {
+                sb.append('|');
+            }
+            for (int i = 0; i < marker.length(); i++) {
+                char c = marker.charAt(i);
+                if (REGEX_META.indexOf(c) >= 0) {
+                    sb.append('\\');
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /** GC 로그 리터럴 (LogQL 집계 쿼리용) */
+    public static String gcMarker() {
+        return GC_MARKER;
+    }
+
+    /** 두 패턴 중 하나라도 매칭될 가능성이 있는 라인인지 (리터럴 검사만) */
+    public static boolean isCandidate(String line) {
+        return line.contains(METRIC_MARKER) || line.contains(GC_MARKER);
+    }
+
+    /**
+     * 로그 한 줄을 시스템 메트릭 / GC 로그로 분류 (둘 다 아니면 null)
+     */
+    public static LogEventDTO classify(Instant timestamp, StreamInfo stream, String line) {
+        boolean metric = line.contains(METRIC_MARKER);
+        boolean gc = line.contains(GC_MARKER);
+        if (!metric && !gc) {
+            return null;
+        }
+        line = stripLineBreaks(line);
+
+        // 1) 시스템 메트릭 매칭
+        if (metric) {
+            Matcher m1 = METRIC_PATTERN.matcher(line);
+            if (m1.find()) {
+                return SystemMetricLogDTO.builder()
+                        .timestamp(timestamp)
+                        .app(stream.app())
+                        .pod(stream.pod())
+                        .cpuLoad(parseDouble(m1.group(1)))
+                        .jvmMemory(parseDouble(m1.group(2)))
+                        .threadCount(Integer.parseInt(m1.group(3)))
+                        .processorCount(Integer.parseInt(m1.group(4)))
+                        .diskUsage(parseDouble(m1.group(5)))
+                        .build();
+            }
+        }
+        // 2) GC 로그 매칭
+        if (gc) {
+            Matcher m2 = GC_PATTERN.matcher(line);
+            if (m2.find()) {
+                return GcLogDTO.builder()
+                        .timestamp(timestamp)
+                        .app(stream.app())
+                        .pod(stream.pod())
+                        .gcUptime(m2.group("uptime"))
+                        .gcId(Long.parseLong(m2.group("id")))
+                        .gcType(m2.group("type").trim())
+                        .gcDetail(m2.group("detail").trim())
+                        .build();
+            }
+        }
+        return null;
+    }
+
+    // [\d.]+ 는 "1.2.3" 같은 값도 매칭하므로 실패 시 NaN
+    private static double parseDouble(String text) {
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    // Loki 타임스탬프는 ns 단위 문자열
+    private static long parseNanos(String text) {
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    // \r, \n 제거 (없으면 원본 그대로 반환)
+    private static String stripLineBreaks(String line) {
+        if (line.indexOf('\n') < 0 && line.indexOf('\r') < 0) {
+            return line;
+        }
+        StringBuilder sb = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c != '\n' && c != '\r') {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
     }
 
     // filename 경로에서 파드 이름 추출 예시
     private static String extractPodName(String filename) {
+        if (filename == null) {
+            return null;
+        }
         // default_namespace_이후부터 첫 번째 '/' 전까지
         int start = filename.indexOf('_') + 1;
         int end = filename.indexOf('/', start);
@@ -0,0 +1,193 @@
+package com.kopo.vita.loganalysis.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * step 간격으로 정렬된 열(column) 기반 메트릭 시계열.
+ * 행 i 의 시각은 start + i × step 이고 값이 없는 칸은 NaN 이다.
+ * 지표마다 인스턴스별 열과 인스턴스를 합친 열을 두고, 열을 채우면서 요약 통계(avg / max / min)도 함께 계산한다.
+ */
+public class MetricFrame {
+
+    /** 같은 시각에 여러 값(인스턴스 / 시리즈)이 있을 때 합치는 방법 */
+    public enum Aggregation {
+        MEAN, SUM
+    }
+
+    private final long startSec;
+    private final long stepSec;
+    private final int size;
+    // 지표 이름 → 인스턴스를 합친 열
+    private final Map<String, double[]> columns = new LinkedHashMap<>();
+    // 지표 이름 → (인스턴스 → 열)
+    private final Map<String, Map<String, double[]>> instances = new LinkedHashMap<>();
+    private final Map<String, DoubleSummaryStatistics> stats = new HashMap<>();
+    private final Map<String, Map<String, DoubleSummaryStatistics>> instanceStats = new HashMap<>();
+    // 어느 지표든 값이 있는 행
+    private final BitSet present;
+
+    /** [start, end] 구간 (양 끝 포함, Prometheus range query 와 동일) */
+    public MetricFrame(Instant start, Instant end, Duration step) {
+        this.startSec = start.getEpochSecond();
+        this.stepSec = step.toSeconds();
+        this.size = (int) ((end.getEpochSecond() - startSec) / stepSec) + 1;
+        this.present = new BitSet(size);
+    }
+
+    /**
+     * 응답 하나(지표 하나)를 frame 과 같은 step 행에 바로 누적한 인스턴스별 값.
+     * 같은 인스턴스의 여러 시리즈(uri / status 별 등)는 행마다 합과 개수를 쌓아 두고 add 에서 aggregation 으로 합친다.
+     * 파싱이 끝나면 읽기 전용이므로 같은 구간을 요청한 여러 frame 이 공유해도 된다.
+     */
+    public static final class InstanceSeries {
+        private final long startSec;
+        private final long stepSec;
+        private final int size;
+        private final Map<String, double[]> sums = new LinkedHashMap<>();
+        private final Map<String, int[]> counts = new HashMap<>();
+
+        /** [start, end] 구간 (frame 과 같은 구간 / step 이어야 함) */
+        public InstanceSeries(Instant start, Instant end, Duration step) {
+            this.startSec = start.getEpochSecond();
+            this.stepSec = step.toSeconds();
+            this.size = (int) ((end.getEpochSecond() - startSec) / stepSec) + 1;
+        }
+
+        /**
+         * 시리즈 하나의 샘플 누적
+         * @param samples [ts0, v0, ts1, v1, ...] (size 까지 유효, step 경계에 맞지 않는 시각은 가까운 행으로)
+         */
+        public void add(String instance, double[] samples, int size) {
+            double[] sum = sums.computeIfAbsent(instance, k -> new double[this.size]);
+            int[] count = counts.computeIfAbsent(instance, k -> new int[this.size]);
+            for (int i = 0; i < size; i += 2) {
+                int row = rowOf(startSec, stepSec, this.size, (long) samples[i]);
+                double value = samples[i + 1];
+                if (row < 0 || Double.isNaN(value)) {
+                    continue;
+                }
+                sum[row] += value;
+                count[row]++;
+            }
+        }
+    }
+
+    /**
+     * 지표 하나를 열로 추가.
+     * 같은 인스턴스의 여러 시리즈와 여러 인스턴스는 aggregation 으로 합치고, 인스턴스별 열은 그대로 보관한다.
+     * @throws IllegalArgumentException series 의 구간 / step 이 frame 과 다른 경우
+     */
+    public void add(String name, InstanceSeries series, Aggregation aggregation) {
+        if (series.startSec != startSec || series.stepSec != stepSec || series.size != size) {
+            throw new IllegalArgumentException("series window does not match frame: " + name);
+        }
+        double[] column = new double[size];
+        int[] columnCount = new int[size];
+        Map<String, double[]> byInstance = new LinkedHashMap<>();
+        Map<String, DoubleSummaryStatistics> byInstanceStats = new LinkedHashMap<>();
+
+        for (var entry : series.sums.entrySet()) {
+            double[] sum = entry.getValue();
+            int[] count = series.counts.get(entry.getKey());
+            double[] values = new double[size];
+            Arrays.fill(values, Double.NaN);
+
+            // 인스턴스 값 확정 + 인스턴스 통계 + 합친 열 누적
+            DoubleSummaryStatistics stat = new DoubleSummaryStatistics();
+            for (int row = 0; row < size; row++) {
+                if (count[row] == 0) {
+                    continue;
+                }
+                values[row] = aggregation == Aggregation.MEAN ? sum[row] / count[row] : sum[row];
+                stat.accept(values[row]);
+                column[row] += values[row];
+                columnCount[row]++;
+            }
+            byInstance.put(entry.getKey(), values);
+            byInstanceStats.put(entry.getKey(), stat);
+        }
+
+        // 합친 열 확정 + 지표 통계
+        DoubleSummaryStatistics stat = new DoubleSummaryStatistics();
+        for (int row = 0; row < size; row++) {
+            if (columnCount[row] == 0) {
+                column[row] = Double.NaN;
+                continue;
+            }
+            if (aggregation == Aggregation.MEAN) {
+                column[row] /= columnCount[row];
+            }
+            stat.accept(column[row]);
+            present.set(row);
+        }
+
+        columns.put(name, column);
+        instances.put(name, byInstance);
+        stats.put(name, stat);
+        instanceStats.put(name, byInstanceStats);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long epochSecond(int row) {
+        return startSec + row * stepSec;
+    }
+
+    public Instant timestamp(int row) {
+        return Instant.ofEpochSecond(epochSecond(row));
+    }
+
+    /** 첫 행 시각 (구간 시작) */
+    public Instant start() {
+        return timestamp(0);
+    }
+
+    /** 마지막 행 시각 (구간 끝) */
+    public Instant end() {
+        return timestamp(size - 1);
+    }
+
+    /** 지표 이름 → 열 (추가한 순서) */
+    public Map<String, double[]> columns() {
+        return Collections.unmodifiableMap(columns);
+    }
+
+    /** 지표의 인스턴스별 열 (없는 지표면 빈 맵) */
+    public Map<String, double[]> instances(String name) {
+        return instances.getOrDefault(name, Map.of());
+    }
+
+    /** 어느 지표든 값이 있는 행 (복사본) */
+    public BitSet presentRows() {
+        return (BitSet) present.clone();
+    }
+
+    /** 합친 열의 avg / max / min (없는 지표면 값이 없는 통계) */
+    public Map<String, Double> stat(String name) {
+        return toMap(stats.getOrDefault(name, new DoubleSummaryStatistics()));
+    }
+
+    /** 인스턴스별 avg / max / min */
+    public Map<String, Map<String, Double>> instanceStats(String name) {
+        Map<String, Map<String, Double>> result = new LinkedHashMap<>();
+        instanceStats.getOrDefault(name, Map.of()).forEach((instance, stat) -> result.put(instance, toMap(stat)));
+        return result;
+    }
+
+    private static int rowOf(long startSec, long stepSec, int size, long epochSecond) {
+        long row = Math.round((double) (epochSecond - startSec) / stepSec);
+        return row >= 0 && row < size ? (int) row : -1;
+    }
+
+    private static Map<String, Double> toMap(DoubleSummaryStatistics stat) {
+        return Map.of(
+                "avg", stat.getAverage(),
+                "max", stat.getMax(),
+                "min", stat.getMin()
+        );
+    }
+}
@@ -0,0 +1,161 @@
+package com.kopo.vita.loganalysis.util;
+
+import java.util.function.BiConsumer;
+
+/**
+ * 아직 다 받지 못한 JSON 텍스트에서 지정한 최상위 문자열 필드 값을 조금씩 꺼낸다.
+ * 스트리밍 응답이 쌓일 때마다 onText 를 호출하면 필드별로 새로 디코딩된 부분만 넘겨준다.
+ * 필드마다 어디까지 읽었는지 기억하므로 앞부분을 다시 훑지 않는다.
+ */
+public class PartialJsonFields {
+
+    // 필드 하나의 진행 상태
+    private static class Field {
+        final String name;
+        final String key;
+        int searchFrom;        // 키를 다시 찾기 시작할 위치
+        int valueStart = -1;   // 여는 따옴표 다음 위치
+        int pos;               // 다음에 디코딩할 위치
+        boolean closed;
+
+        Field(String name) {
+            this.name = name;
+            this.key = "\"" + name + "\"";
+        }
+    }
+
+    private final Field[] fields;
+
+    public PartialJsonFields(String... names) {
+        this.fields = new Field[names.length];
+        for (int i = 0; i < names.length; i++) {
+            fields[i] = new Field(names[i]);
+        }
+    }
+
+    /**
+     * @param text 지금까지 받은 전체 텍스트 (앞부분은 바뀌지 않아야 함)
+     * @param sink (필드 이름, 새로 디코딩된 부분)
+     */
+    public void onText(CharSequence text, BiConsumer<String, String> sink) {
+        for (Field f : fields) {
+            if (f.closed) {
+                continue;
+            }
+            if (f.valueStart < 0 && !locateValue(text, f)) {
+                continue;
+            }
+            StringBuilder delta = new StringBuilder();
+            f.pos = decode(text, f, delta);
+            if (!delta.isEmpty()) {
+                sink.accept(f.name, delta.toString());
+            }
+        }
+    }
+
+    // "name" : " 까지 다 들어왔으면 값 시작 위치를 기록
+    private boolean locateValue(CharSequence s, Field f) {
+        int i = indexOf(s, f.key, f.searchFrom);
+        if (i < 0) {
+            // 키가 청크 경계에 걸쳐 있을 수 있으니 키 길이만큼 남겨 두고 다음엔 그 뒤부터 찾는다
+            f.searchFrom = Math.max(f.searchFrom, s.length() - f.key.length() + 1);
+            return false;
+        }
+        // 키는 찾았지만 ':' / '"' 가 아직 안 왔으면 다음 호출에서 이 키부터 다시 확인
+        f.searchFrom = i;
+        i = skipSpaces(s, i + f.key.length());
+        if (i >= s.length() || s.charAt(i) != ':') {
+            return false;
+        }
+        i = skipSpaces(s, i + 1);
+        if (i >= s.length() || s.charAt(i) != '"') {
+            return false;
+        }
+        f.valueStart = i + 1;
+        f.pos = f.valueStart;
+        return true;
+    }
+
+    // 닫는 따옴표 또는 완성되지 않은 escape 직전까지 디코딩, 다음 위치 반환
+    private int decode(CharSequence s, Field f, StringBuilder out) {
+        int i = f.pos;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c == '"') {
+                f.closed = true;
+                return i + 1;
+            }
+            if (c != '\\') {
+                out.append(c);
+                i++;
+                continue;
+            }
+            if (i + 1 >= s.length()) {
+                return i;
+            }
+            char e = s.charAt(i + 1);
+            if (e == 'u') {
+                // 네 자리가 다 올 때까지 기다리고, 16진수가 아니면 그대로 내보낸다
+                int hex = hex4(s, i + 2);
+                if (hex == -2) {
+                    return i;
+                }
+                if (hex < 0) {
+                    out.append(e);
+                    i += 2;
+                    continue;
+                }
+                out.append((char) hex);
+                i += 6;
+                continue;
+            }
+            out.append(switch (e) {
+                case 'n' -> '\n';
+                case 't' -> '\t';
+                case 'r' -> '\r';
+                case 'b' -> '\b';
+                case 'f' -> '\f';
+                default -> e;
+            });
+            i += 2;
+        }
+        return i;
+    }
+
+    // from 부터 네 자리 16진수 값, 아직 덜 왔으면 -2, 16진수가 아니면 -1
+    private int hex4(CharSequence s, int from) {
+        int value = 0;
+        for (int k = from; k < from + 4; k++) {
+            if (k >= s.length()) {
+                return -2;
+            }
+            int d = Character.digit(s.charAt(k), 16);
+            if (d < 0) {
+                return -1;
+            }
+            value = value * 16 + d;
+        }
+        return value;
+    }
+
+    private int indexOf(CharSequence s, String key, int from) {
+        int last = s.length() - key.length();
+        outer:
+        for (int i = Math.max(0, from); i <= last; i++) {
+            for (int k = 0; k < key.length(); k++) {
+                if (s.charAt(i + k) != key.charAt(k)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private int skipSpaces(CharSequence s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
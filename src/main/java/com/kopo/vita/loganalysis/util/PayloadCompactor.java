@@ -0,0 +1,401 @@
+package com.kopo.vita.loganalysis.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kopo.vita.common.util.JsonReaders;
+import com.kopo.vita.loganalysis.dto.AnomalyDTO;
+import com.kopo.vita.loganalysis.dto.GcLogDTO;
+import com.kopo.vita.loganalysis.dto.LogEventDTO;
+import com.kopo.vita.loganalysis.dto.SystemMetricLogDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Gemini 로 보내는 분석 페이로드 압축기.
+ * 시계열은 헤더 + CSV 행으로, 반복되는 로그는 묶어서 개수로 표현하고,
+ * 추정 토큰 수가 예산을 넘으면 가치가 낮은 내용부터 줄인다.
+ * (GC 상세 샘플 → 로그 메트릭 행 → GC 그룹 → 메트릭 시계열 순)
+ */
+@Component
+public class PayloadCompactor {
+
+    // 토큰 추정: 대략 4글자당 1토큰
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int MIN_SERIES_POINTS = 10;
+    private static final int MIN_LOG_ROWS = 10;
+    private static final int MIN_GC_GROUPS = 3;
+    private static final Pattern DIGITS = Pattern.compile("\\d+(\\.\\d+)?");
+
+    private static final String LOG_METRIC_COLUMNS = "t,pod,cpuLoad,jvmMemory,threadCount,processorCount,diskUsage,repeat";
+
+    private final ObjectMapper objectMapper;
+    private final int tokenBudget;
+    private final int maxSeriesPoints;
+    private final int maxLogRows;
+    private final int maxGcGroups;
+
+    public PayloadCompactor(JsonReaders readers,
+                            @Value("${loganalysis.payload.token-budget:8000}") int tokenBudget,
+                            @Value("${loganalysis.payload.max-series-points:60}") int maxSeriesPoints,
+                            @Value("${loganalysis.payload.max-log-rows:200}") int maxLogRows,
+                            @Value("${loganalysis.payload.max-gc-groups:30}") int maxGcGroups) {
+        this.objectMapper = readers.mapper();
+        this.tokenBudget = tokenBudget;
+        this.maxSeriesPoints = maxSeriesPoints;
+        this.maxLogRows = maxLogRows;
+        this.maxGcGroups = maxGcGroups;
+    }
+
+    /** 압축 단계 설정 (예산을 넘을 때마다 한 단계씩 줄임) */
+    private static class Limits {
+        int seriesPoints;
+        int logRows;
+        int gcGroups;
+        boolean gcDetail = true;
+    }
+
+    /**
+     * 추정 토큰 수가 예산 안에 들어올 때까지 줄인 페이로드를 반환.
+     * 최소 단계까지 줄여도 넘으면 그 상태로 반환한다.
+     * @param rows 시계열에 담을 frame 행
+     */
+    public ObjectNode compact(Instant from, Instant to,
+                              Map<String, Map<String, Double>> summary,
+                              MetricFrame frame,
+                              BitSet rows,
+                              List<LogEventDTO> logs,
+                              List<String> missingSources,
+                              List<AnomalyDTO> anomalies) {
+        List<SystemMetricLogDTO> metricLogs = new ArrayList<>();
+        List<GcLogDTO> gcLogs = new ArrayList<>();
+        for (LogEventDTO event : logs) {
+            if (event instanceof SystemMetricLogDTO m) {
+                metricLogs.add(m);
+            } else if (event instanceof GcLogDTO g) {
+                gcLogs.add(g);
+            }
+        }
+        List<MetricLogRow> collapsedMetricLogs = collapseMetricLogs(metricLogs);
+        List<GcGroup> gcGroups = groupGcLogs(gcLogs);
+
+        Limits limits = new Limits();
+        limits.seriesPoints = maxSeriesPoints;
+        limits.logRows = maxLogRows;
+        limits.gcGroups = maxGcGroups;
+
+        while (true) {
+            ObjectNode payload = build(from, to, summary, frame, rows, collapsedMetricLogs, gcGroups, missingSources, limits);
+            putAnomalies(payload, from, anomalies);
+            int tokens = estimateTokens(payload.toString());
+            if (tokens <= tokenBudget || !shrink(limits)) {
+                payload.put("estimatedTokens", tokens);
+                return payload;
+            }
+        }
+    }
+
+    // 로컬 탐지 결과 (시계열 / 로그는 이 구간 주변만 담겨 있음)
+    private void putAnomalies(ObjectNode payload, Instant from, List<AnomalyDTO> anomalies) {
+        if (anomalies.isEmpty()) {
+            return;
+        }
+        payload.put("focus", "series and logs are limited to the detected anomaly windows plus context");
+        ObjectNode node = payload.putObject("anomalies");
+        node.put("columns", "t,metric,type,value,baseline");
+        StringBuilder sb = new StringBuilder();
+        for (AnomalyDTO a : anomalies) {
+            sb.append(seconds(from, a.getTimestamp())).append(',')
+                    .append(a.getMetric()).append(',')
+                    .append(a.getType()).append(',')
+                    .append(format(a.getValue())).append(',')
+                    .append(format(a.getBaseline()))
+                    .append('\n');
+        }
+        node.put("rows", sb.toString());
+    }
+
+    /** 로컬 토큰 수 추정 */
+    public static int estimateTokens(String text) {
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    // 가치가 낮은 것부터 한 단계 줄임 (더 줄일 수 없으면 false)
+    private boolean shrink(Limits limits) {
+        if (limits.gcDetail) {
+            limits.gcDetail = false;
+            return true;
+        }
+        if (limits.logRows > MIN_LOG_ROWS) {
+            limits.logRows = Math.max(MIN_LOG_ROWS, limits.logRows / 2);
+            return true;
+        }
+        if (limits.gcGroups > MIN_GC_GROUPS) {
+            limits.gcGroups = Math.max(MIN_GC_GROUPS, limits.gcGroups / 2);
+            return true;
+        }
+        if (limits.seriesPoints > MIN_SERIES_POINTS) {
+            limits.seriesPoints = Math.max(MIN_SERIES_POINTS, limits.seriesPoints / 2);
+            return true;
+        }
+        return false;
+    }
+
+    private ObjectNode build(Instant from, Instant to,
+                             Map<String, Map<String, Double>> summary,
+                             MetricFrame frame,
+                             BitSet rows,
+                             List<MetricLogRow> metricLogs,
+                             List<GcGroup> gcGroups,
+                             List<String> missingSources,
+                             Limits limits) {
+        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode window = root.putObject("window");
+        window.put("from", from.toString());
+        window.put("to", to.toString());
+        root.put("format", "series/logs rows are CSV matching 'columns'; t = seconds since window.from; empty = no data");
+        if (!missingSources.isEmpty()) {
+            ArrayNode missing = root.putArray("missingSources");
+            missingSources.forEach(missing::add);
+        }
+
+        // 메트릭
+        ObjectNode metrics = root.putObject("metrics");
+        ObjectNode summaryNode = metrics.putObject("summary");
+        summary.forEach((name, stat) -> {
+            ObjectNode s = summaryNode.putObject(name);
+            stat.forEach((k, v) -> s.put(k, round(v)));
+        });
+        putInstances(metrics, frame);
+        ObjectNode seriesNode = metrics.putObject("series");
+        seriesNode.put("columns", "t," + String.join(",", frame.columns().keySet()));
+        seriesNode.put("rows", seriesRows(from, frame, rows, limits.seriesPoints));
+
+        // 로그
+        ObjectNode logsNode = root.putObject("logs");
+        ObjectNode metricLogNode = logsNode.putObject("systemMetrics");
+        metricLogNode.put("columns", LOG_METRIC_COLUMNS);
+        metricLogNode.put("rows", metricLogRows(from, metricLogs, limits.logRows));
+        ArrayNode gcNode = logsNode.putArray("gc");
+        gcGroups.stream().limit(limits.gcGroups).forEach(group -> {
+            ObjectNode g = gcNode.addObject();
+            g.put("pod", group.pod);
+            g.put("type", group.type);
+            g.put("count", group.count);
+            g.put("first", seconds(from, group.first));
+            g.put("last", seconds(from, group.last));
+            if (limits.gcDetail) {
+                g.put("lastDetail", group.lastDetail);
+            }
+        });
+        if (gcGroups.size() > limits.gcGroups) {
+            logsNode.put("gcGroupsOmitted", gcGroups.size() - limits.gcGroups);
+        }
+        return root;
+    }
+
+    // 인스턴스가 둘 이상인 지표만 인스턴스별 요약 (시계열은 합친 값만 보냄)
+    private void putInstances(ObjectNode metrics, MetricFrame frame) {
+        ObjectNode instancesNode = null;
+        for (String name : frame.columns().keySet()) {
+            if (frame.instances(name).size() < 2) {
+                continue;
+            }
+            if (instancesNode == null) {
+                instancesNode = metrics.putObject("instances");
+            }
+            ObjectNode metricNode = instancesNode.putObject(name);
+            frame.instanceStats(name).forEach((instance, stat) -> {
+                ObjectNode s = metricNode.putObject(instance);
+                stat.forEach((k, v) -> s.put(k, round(v)));
+            });
+        }
+    }
+
+    // 메트릭 열 → CSV 행 (지표별 LTTB 로 고른 점의 합집합)
+    private String seriesRows(Instant from, MetricFrame frame, BitSet rows, int maxPoints) {
+        int[] candidates = rows.stream().toArray();
+        int size = candidates.length;
+        double[] x = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = frame.epochSecond(candidates[i]);
+        }
+        BitSet keep = new BitSet(size);
+        int perColumn = Math.max(3, maxPoints / 2);
+        double[] y = new double[size];
+        for (double[] column : frame.columns().values()) {
+            for (int i = 0; i < size; i++) {
+                y[i] = column[candidates[i]];
+            }
+            for (int index : Downsampler.lttb(x, y, size, perColumn)) {
+                keep.set(index);
+            }
+        }
+        // 합집합이 상한을 넘으면 고르게 솎아냄
+        int[] selected = thin(keep.stream().toArray(), maxPoints);
+
+        StringBuilder sb = new StringBuilder();
+        for (int index : selected) {
+            int row = candidates[index];
+            sb.append(frame.epochSecond(row) - from.getEpochSecond());
+            for (double[] column : frame.columns().values()) {
+                sb.append(',').append(format(column[row]));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    // 로그 메트릭 행 → CSV (파드별 jvmMemory 기준 LTTB 후 시간순)
+    private String metricLogRows(Instant from, List<MetricLogRow> rows, int maxRows) {
+        Map<String, List<MetricLogRow>> byPod = groupBy(rows, r -> String.valueOf(r.log().getPod()));
+        int perPod = Math.max(3, maxRows / Math.max(1, byPod.size()));
+        List<MetricLogRow> selected = new ArrayList<>();
+        for (List<MetricLogRow> podRows : byPod.values()) {
+            int size = podRows.size();
+            double[] x = new double[size];
+            double[] y = new double[size];
+            for (int i = 0; i < size; i++) {
+                x[i] = podRows.get(i).log().getTimestamp().toEpochMilli();
+                y[i] = podRows.get(i).log().getJvmMemory();
+            }
+            for (int index : Downsampler.lttb(x, y, size, perPod)) {
+                selected.add(podRows.get(index));
+            }
+        }
+        selected.sort(Comparator.comparing(r -> r.log().getTimestamp()));
+
+        StringBuilder sb = new StringBuilder();
+        for (MetricLogRow row : selected) {
+            SystemMetricLogDTO l = row.log();
+            sb.append(seconds(from, l.getTimestamp())).append(',')
+                    .append(l.getPod()).append(',')
+                    .append(format(l.getCpuLoad())).append(',')
+                    .append(format(l.getJvmMemory())).append(',')
+                    .append(l.getThreadCount()).append(',')
+                    .append(l.getProcessorCount()).append(',')
+                    .append(format(l.getDiskUsage())).append(',')
+                    .append(row.repeat())
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+
+    /** 연속으로 같은 값이 찍힌 로그 메트릭 행 (repeat = 묶인 줄 수) */
+    private record MetricLogRow(SystemMetricLogDTO log, int repeat) {
+    }
+
+    // 파드별로 직전 행과 (반올림 기준) 값이 같은 행은 하나로 묶음
+    private List<MetricLogRow> collapseMetricLogs(List<SystemMetricLogDTO> logs) {
+        List<SystemMetricLogDTO> sorted = new ArrayList<>(logs);
+        sorted.sort(Comparator.comparing(SystemMetricLogDTO::getTimestamp));
+
+        List<MetricLogRow> rows = new ArrayList<>();
+        Map<String, Integer> lastRowByPod = new HashMap<>();
+        for (SystemMetricLogDTO l : sorted) {
+            String pod = String.valueOf(l.getPod());
+            Integer last = lastRowByPod.get(pod);
+            if (last != null && sameValues(rows.get(last).log(), l)) {
+                MetricLogRow prev = rows.get(last);
+                rows.set(last, new MetricLogRow(prev.log(), prev.repeat() + 1));
+                continue;
+            }
+            lastRowByPod.put(pod, rows.size());
+            rows.add(new MetricLogRow(l, 1));
+        }
+        return rows;
+    }
+
+    private static boolean sameValues(SystemMetricLogDTO a, SystemMetricLogDTO b) {
+        return format(a.getCpuLoad()).equals(format(b.getCpuLoad()))
+                && format(a.getJvmMemory()).equals(format(b.getJvmMemory()))
+                && a.getThreadCount() == b.getThreadCount()
+                && a.getProcessorCount() == b.getProcessorCount()
+                && format(a.getDiskUsage()).equals(format(b.getDiskUsage()));
+    }
+
+    /** 숫자만 다른 GC 로그 묶음 */
+    private static class GcGroup {
+        String pod;
+        String type;
+        int count;
+        Instant first;
+        Instant last;
+        String lastDetail;
+    }
+
+    // (파드, GC 종류, 숫자를 지운 상세) 가 같은 GC 로그를 묶고 많이 나온 순으로 정렬
+    private List<GcGroup> groupGcLogs(List<GcLogDTO> logs) {
+        Map<String, GcGroup> groups = new LinkedHashMap<>();
+        for (GcLogDTO l : logs) {
+            String key = l.getPod() + "|" + l.getGcType() + "|" + DIGITS.matcher(String.valueOf(l.getGcDetail())).replaceAll("#");
+            GcGroup group = groups.get(key);
+            if (group == null) {
+                group = new GcGroup();
+                group.pod = l.getPod();
+                group.type = l.getGcType();
+                group.first = l.getTimestamp();
+                group.last = l.getTimestamp();
+                groups.put(key, group);
+            }
+            group.count++;
+            if (l.getTimestamp().isBefore(group.first)) {
+                group.first = l.getTimestamp();
+            }
+            if (!l.getTimestamp().isBefore(group.last)) {
+                group.last = l.getTimestamp();
+                group.lastDetail = l.getGcDetail();
+            }
+        }
+        List<GcGroup> sorted = new ArrayList<>(groups.values());
+        sorted.sort(Comparator.comparingInt((GcGroup g) -> g.count).reversed());
+        return sorted;
+    }
+
+    private static int[] thin(int[] rows, int max) {
+        if (rows.length <= max) {
+            return rows;
+        }
+        int[] thinned = new int[max];
+        double step = (double) (rows.length - 1) / (max - 1);
+        for (int i = 0; i < max; i++) {
+            thinned[i] = rows[(int) Math.round(i * step)];
+        }
+        return thinned;
+    }
+
+    private static <T> Map<String, List<T>> groupBy(List<T> items, Function<T, String> key) {
+        Map<String, List<T>> groups = new LinkedHashMap<>();
+        for (T item : items) {
+            groups.computeIfAbsent(key.apply(item), k -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+
+    private static long seconds(Instant from, Instant ts) {
+        return ts.getEpochSecond() - from.getEpochSecond();
+    }
+
+    // 소수 둘째 자리 반올림 (NaN / 무한대는 null)
+    private static Double round(Double value) {
+        if (value == null || value.isNaN() || value.isInfinite()) {
+            return null;
+        }
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    // 소수 둘째 자리 반올림, 불필요한 0 제거 (NaN / 무한대는 빈 칸)
+    private static String format(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return "";
+        }
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString();
+    }
+}
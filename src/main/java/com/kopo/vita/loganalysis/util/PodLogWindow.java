@@ -0,0 +1,99 @@
+package com.kopo.vita.loganalysis.util;
+
+import com.kopo.vita.loganalysis.dto.LogEventDTO;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * 파드별 최근 로그 이벤트 보관소.
+ * 파드마다 시간순 원형 버퍼 하나를 두고, 보관 기간이 지난 이벤트와 파드당 상한을 넘는 이벤트는 오래된 것부터 버린다.
+ * 한 파드의 여러 스트림(컨테이너 / 재시작)은 각자만 정렬돼 섞여 들어오므로 add 가 시각 순서 자리에 끼워 넣는다.
+ */
+public class PodLogWindow {
+
+    private static final String UNKNOWN_POD = "unknown";
+
+    private final Duration retention;
+    private final int maxPerPod;
+    private final Map<String, ArrayDeque<LogEventDTO>> pods = new HashMap<>();
+
+    private long evicted;
+
+    public PodLogWindow(Duration retention, int maxPerPod) {
+        this.retention = retention;
+        this.maxPerPod = maxPerPod;
+    }
+
+    /**
+     * 이벤트 추가. 마지막 이벤트보다 이르면 뒤에서부터 자리를 찾아 끼워 넣는다
+     * (같은 시각이면 먼저 들어온 것이 앞, 대부분 맨 뒤에 붙으므로 보통은 O(1))
+     */
+    public synchronized void add(LogEventDTO event) {
+        String pod = event.getPod() != null ? event.getPod() : UNKNOWN_POD;
+        ArrayDeque<LogEventDTO> buffer = pods.computeIfAbsent(pod, p -> new ArrayDeque<>());
+        if (buffer.isEmpty() || !event.getTimestamp().isBefore(buffer.peekLast().getTimestamp())) {
+            buffer.addLast(event);
+        } else {
+            Deque<LogEventDTO> later = new ArrayDeque<>();
+            while (!buffer.isEmpty() && event.getTimestamp().isBefore(buffer.peekLast().getTimestamp())) {
+                later.addFirst(buffer.pollLast());
+            }
+            buffer.addLast(event);
+            buffer.addAll(later);
+        }
+        if (buffer.size() > maxPerPod) {
+            buffer.pollFirst();
+            evicted++;
+        }
+    }
+
+    /** 보관 기간이 지난 이벤트 제거 (비어 있는 파드도 정리) */
+    public synchronized void evictBefore(Instant now) {
+        Instant cutoff = now.minus(retention);
+        Iterator<ArrayDeque<LogEventDTO>> it = pods.values().iterator();
+        while (it.hasNext()) {
+            ArrayDeque<LogEventDTO> buffer = it.next();
+            while (!buffer.isEmpty() && buffer.peekFirst().getTimestamp().isBefore(cutoff)) {
+                buffer.pollFirst();
+                evicted++;
+            }
+            if (buffer.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    /** from 이후 이벤트를 모든 파드에 걸쳐 시간순으로 반환 */
+    public synchronized List<LogEventDTO> snapshot(Instant from) {
+        List<LogEventDTO> result = new ArrayList<>();
+        for (ArrayDeque<LogEventDTO> buffer : pods.values()) {
+            // 뒤에서부터 from 이전이 나올 때까지만 훑음
+            Iterator<LogEventDTO> it = buffer.descendingIterator();
+            int start = result.size();
+            while (it.hasNext()) {
+                LogEventDTO event = it.next();
+                if (event.getTimestamp().isBefore(from)) {
+                    break;
+                }
+                result.add(event);
+            }
+            Collections.reverse(result.subList(start, result.size()));
+        }
+        result.sort(Comparator.comparing(LogEventDTO::getTimestamp));
+        return result;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        int events = 0;
+        for (ArrayDeque<LogEventDTO> buffer : pods.values()) {
+            events += buffer.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pods", pods.size());
+        stats.put("events", events);
+        stats.put("evicted", evicted);
+        return stats;
+    }
+}
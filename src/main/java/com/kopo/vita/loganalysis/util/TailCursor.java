@@ -0,0 +1,83 @@
+package com.kopo.vita.loganalysis.util;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Loki forward 증분 조회 커서.
+ * Loki 의 start 는 포함이므로 다음 조회는 마지막으로 받은 시각부터 다시 시작하고,
+ * 그 경계 시각에 이미 받은 엔트리만 (스트림 라벨, 라인) 으로 걸러낸다.
+ * 같은 ns 에 찍힌 엔트리가 다음 페이지 / 다음 주기에 도착해도 버려지지 않는다.
+ */
+public class TailCursor {
+
+    // 다음 조회 시작 시각 (ns, 포함)
+    private long positionNs;
+    // positionNs 시각에 이미 받은 엔트리 키
+    private Set<String> boundary = new HashSet<>();
+
+    // 진행 중인 페이지의 최대 시각과 그 시각의 엔트리 키
+    private long pageMaxNs;
+    private Set<String> pageMaxKeys = new HashSet<>();
+
+    public long position() {
+        return positionNs;
+    }
+
+    /** 시작 시각을 ns 이상으로 (보관 구간 하한) */
+    public void advanceTo(long ns) {
+        if (ns > positionNs) {
+            positionNs = ns;
+            boundary = new HashSet<>();
+        }
+    }
+
+    public void beginPage() {
+        pageMaxNs = Long.MIN_VALUE;
+        pageMaxKeys = new HashSet<>();
+    }
+
+    /** 처음 받는 엔트리면 true (경계 시각에 이미 받은 엔트리나 시작 시각 이전이면 false) */
+    public boolean accept(long ns, String streamKey, String line) {
+        if (ns < positionNs) {
+            return false;
+        }
+        String key = streamKey + '\n' + line;
+        if (ns == positionNs && boundary.contains(key)) {
+            return false;
+        }
+        if (ns > pageMaxNs) {
+            pageMaxNs = ns;
+            pageMaxKeys = new HashSet<>();
+        }
+        if (ns == pageMaxNs) {
+            pageMaxKeys.add(key);
+        }
+        return true;
+    }
+
+    /**
+     * 페이지를 모두 반영한 뒤 호출. 시작 시각이 앞으로 움직였으면 true
+     */
+    public boolean endPage() {
+        if (pageMaxNs > positionNs) {
+            positionNs = pageMaxNs;
+            boundary = pageMaxKeys;
+            return true;
+        }
+        if (pageMaxNs == positionNs) {
+            boundary.addAll(pageMaxKeys);
+        }
+        return false;
+    }
+
+    /** 한 페이지가 모두 경계 시각이라 더 나아갈 수 없을 때 다음 ns 로 건너뜀 */
+    public void skipBoundary() {
+        positionNs++;
+        boundary = new HashSet<>();
+    }
+
+    public int boundarySize() {
+        return boundary.size();
+    }
+}
@@ -1,13 +1,22 @@
 package com.kopo.vita.metricchart.controller;
 
+import com.kopo.vita.metricchart.dto.ChartSeriesDTO;
+import com.kopo.vita.metricchart.dto.ColumnarChartDTO;
 import com.kopo.vita.metricchart.dto.MetricDTO;
 import com.kopo.vita.metricchart.service.MetricChartService;
-import org.springframework.web.bind.annotation.GetMapping;
+import com.kopo.vita.metricchart.util.ColumnarSeries;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/metrics")
@@ -20,25 +29,77 @@ public class MetricChartController {
 
     /** JVM 프로세스 CPU 사용률 (%) */
     @PostMapping("/jvm/cpu")
-    public List<MetricDTO> jvmCpu() {
-        return service.getJvmCpuUsage();
+    public Mono<ResponseEntity<?>> jvmCpu(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return respond(accept, service.getJvmCpuUsage());
     }
 
     /** JVM 힙 사용량 (MiB) */
     @PostMapping("/jvm/heap")
-    public List<MetricDTO> jvmHeap() {
-        return service.getJvmHeapUsage();
+    public Mono<ResponseEntity<?>> jvmHeap(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return respond(accept, service.getJvmHeapUsage());
     }
 
     /** HTTP Request Rate (1m) */
     @PostMapping("/http/request-rate")
-    public List<MetricDTO> httpRequestRate() {
-        return service.getHttpRequestRate();
+    public Mono<ResponseEntity<?>> httpRequestRate(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return respond(accept, service.getHttpRequestRate());
     }
 
     /** /app/. 볼륨 사용률 (%) */
     @PostMapping("/disk/app-volume-usage")
-    public List<MetricDTO> appVolume() {
+    public Mono<ResponseEntity<?>> appVolume(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return respond(accept, service.getAppVolumeUsage());
+    }
+
+    /** 차트 4종 한 번에 (병렬 조회) */
+    @PostMapping("/charts")
+    public Mono<ResponseEntity<?>> allCharts(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType columnar = ColumnarSeries.negotiate(accept);
+        if (columnar == null) {
+            return service.getAllCharts().<ResponseEntity<?>>map(ResponseEntity::ok);
+        }
+        return service.getAllCharts().<ResponseEntity<?>>map(charts -> {
+            Map<String, ColumnarChartDTO> body = new LinkedHashMap<>();
+            charts.forEach((chart, series) -> body.put(chart, service.toColumnar(series)));
+            return ResponseEntity.ok().contentType(columnar).body(body);
+        });
+    }
+
+    // ---- 스트리밍 (NDJSON: 시리즈 하나당 한 줄, 준비되는 대로 전송) ----
+
+    @PostMapping(value = "/jvm/cpu/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MetricDTO> jvmCpuStream() {
+        return service.getJvmCpuUsage();
+    }
+
+    @PostMapping(value = "/jvm/heap/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MetricDTO> jvmHeapStream() {
+        return service.getJvmHeapUsage();
+    }
+
+    @PostMapping(value = "/http/request-rate/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MetricDTO> httpRequestRateStream() {
+        return service.getHttpRequestRate();
+    }
+
+    @PostMapping(value = "/disk/app-volume-usage/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MetricDTO> appVolumeStream() {
         return service.getAppVolumeUsage();
     }
-}
\ No newline at end of file
+
+    /** 차트 4종 스트림 ({"chart": "...", "series": {...}} 한 줄씩, 먼저 끝난 차트부터) */
+    @PostMapping(value = "/charts/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ChartSeriesDTO> allChartsStream() {
+        return service.streamAllCharts();
+    }
+
+    // Accept 에 열 기반 형식(vnd.vita.series+json / Smile / CBOR)이 명시되면 ColumnarChartDTO, 아니면 기존 목록
+    private Mono<ResponseEntity<?>> respond(String accept, Flux<MetricDTO> series) {
+        MediaType columnar = ColumnarSeries.negotiate(accept);
+        if (columnar == null) {
+            return series.collectList().<ResponseEntity<?>>map(ResponseEntity::ok);
+        }
+        return series.collectList()
+                .<ResponseEntity<?>>map(list -> ResponseEntity.ok().contentType(columnar).body(service.toColumnar(list)));
+    }
+}
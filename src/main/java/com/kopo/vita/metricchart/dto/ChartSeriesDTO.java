@@ -0,0 +1,12 @@
+package com.kopo.vita.metricchart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/** 차트 이름이 붙은 시리즈 하나 (차트 스트림 응답의 한 줄) */
+@Data
+@AllArgsConstructor
+public class ChartSeriesDTO {
+    private String chart;
+    private MetricDTO series;
+}
@@ -0,0 +1,18 @@
+package com.kopo.vita.metricchart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 열 기반 차트 응답. 시각은 start / step 으로 한 번만 보내고 시리즈마다 값 배열만 담는다.
+ * (Accept: application/vnd.vita.series+json | application/x-jackson-smile | application/cbor)
+ */
+@Data
+@AllArgsConstructor
+public class ColumnarChartDTO {
+    private long start;     // 첫 값의 시각 (epoch sec)
+    private long step;      // sec
+    private List<ColumnarSeriesDTO> series;
+}
@@ -0,0 +1,14 @@
+package com.kopo.vita.metricchart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+/** 열 기반 차트 응답의 시리즈 하나 (values[i] 의 시각은 start + i × step, 값이 없으면 null) */
+@Data
+@AllArgsConstructor
+public class ColumnarSeriesDTO {
+    private Map<String, String> labels;
+    private Double[] values;
+}
@@ -1,14 +1,25 @@
 package com.kopo.vita.metricchart.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.List;
+import java.util.Map;
 
 public class MetricDTO {
     private String seriesName;
     private List<DataPointDTO> dataPoints;
+    // seriesName 의 원본 라벨 (열 기반 응답용, 기존 JSON 응답에는 포함하지 않음)
+    @JsonIgnore
+    private Map<String, String> labels;
 
     public MetricDTO(String seriesName, List<DataPointDTO> dataPoints) {
+        this(seriesName, dataPoints, null);
+    }
+
+    public MetricDTO(String seriesName, List<DataPointDTO> dataPoints, Map<String, String> labels) {
         this.seriesName = seriesName;
         this.dataPoints = dataPoints;
+        this.labels = labels;
     }
 
     public String getSeriesName() {
@@ -17,4 +28,8 @@ public class MetricDTO {
 
     public List<DataPointDTO> getDataPoints() {
         return dataPoints;
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
     }}
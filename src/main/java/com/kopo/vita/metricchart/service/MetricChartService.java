@@ -1,97 +1,178 @@
 package com.kopo.vita.metricchart.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kopo.vita.common.util.QueryKeys;
+import com.kopo.vita.common.util.SingleFlight;
+import com.kopo.vita.common.util.SingleFlightRegistry;
+import com.kopo.vita.metricchart.dto.ChartSeriesDTO;
+import com.kopo.vita.metricchart.dto.ColumnarChartDTO;
 import com.kopo.vita.metricchart.dto.DataPointDTO;
 import com.kopo.vita.metricchart.dto.MetricDTO;
+import com.kopo.vita.metricchart.util.ColumnarSeries;
+import com.kopo.vita.metricchart.util.RangeSeriesCache;
+import com.kopo.vita.prometheus.util.PrometheusResultParser;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class MetricChartService {
 
-    private final RestTemplate restTemplate;
-    private final ObjectMapper mapper = new ObjectMapper();
-
-    @Value("${prometheus.base-url}")
-    private String prometheusUrl;
+    private final WebClient webClient;
+    private final ObjectMapper mapper;
+    // 같은 (PromQL, 구간) 동시 요청은 하나의 호출을 공유
+    private final SingleFlight<String, List<MetricDTO>> inFlight;
+    // 이전에 받은 포인트를 보관하고 새 꼬리 구간만 조회
+    private final RangeSeriesCache rangeCache;
+    // 캐시된 구간 끝에서 이만큼의 step 은 다시 조회 (rate() 창이 덜 찼거나 늦게 들어온 scrape 보정)
+    private final int refetchSteps;
 
     private static final Duration RANGE = Duration.ofMinutes(20);
     private static final long STEP = 60L;
 
-    public MetricChartService(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    private static final String JVM_CPU = "process_cpu_usage * 100";
+    private static final String JVM_HEAP = "jvm_memory_used_bytes{area=\"heap\"} / (1024*1024)";
+    private static final String HTTP_REQUEST_RATE = "sum(rate(http_server_requests_seconds_count[1m]))";
+    private static final String APP_VOLUME_USAGE = "100 * (1 - (disk_free_bytes{path=\"/app/.\"} / disk_total_bytes{path=\"/app/.\"}))";
+
+    public MetricChartService(@Value("${prometheus.base-url}") String prometheusUrl,
+                              ObjectMapper mapper,
+                              SingleFlightRegistry singleFlightRegistry,
+                              @Value("${metricchart.range-cache.max-points:200000}") long maxCachedPoints,
+                              @Value("${metricchart.range-cache.refetch-steps:2}") int refetchSteps) {
+        this.webClient = WebClient.builder()
+                .baseUrl(prometheusUrl)
+                .build();
+        this.mapper = mapper;
+        this.inFlight = singleFlightRegistry.create("metricchart.query_range");
+        this.rangeCache = new RangeSeriesCache(maxCachedPoints);
+        this.refetchSteps = refetchSteps;
     }
 
-    public List<MetricDTO> getJvmCpuUsage() {
-        return queryRange("process_cpu_usage * 100");
+    public Flux<MetricDTO> getJvmCpuUsage() {
+        return queryRange(JVM_CPU);
     }
 
-    public List<MetricDTO> getJvmHeapUsage() {
-        return queryRange("jvm_memory_used_bytes{area=\"heap\"} / (1024*1024)");
+    public Flux<MetricDTO> getJvmHeapUsage() {
+        return queryRange(JVM_HEAP);
     }
 
-    public List<MetricDTO> getHttpRequestRate() {
-        return queryRange("sum(rate(http_server_requests_seconds_count[1m]))");
+    public Flux<MetricDTO> getHttpRequestRate() {
+        return queryRange(HTTP_REQUEST_RATE);
     }
 
-    public List<MetricDTO> getAppVolumeUsage() {
-        return queryRange("100 * (1 - (disk_free_bytes{path=\"/app/.\"} / disk_total_bytes{path=\"/app/.\"}))");
+    public Flux<MetricDTO> getAppVolumeUsage() {
+        return queryRange(APP_VOLUME_USAGE);
     }
 
-    private List<MetricDTO> queryRange(String promql) {
-        Instant end   = Instant.now();
-        Instant start = end.minus(RANGE);
+    /**
+     * 대시보드 차트 4종을 병렬로 조회 (차트 이름 → 시리즈 목록)
+     */
+    public Mono<Map<String, List<MetricDTO>>> getAllCharts() {
+        return Flux.fromIterable(charts().entrySet())
+                .flatMapSequential(entry -> entry.getValue().collectList()
+                        .map(series -> Map.entry(entry.getKey(), series)))
+                .collect(LinkedHashMap::new, (map, entry) -> map.put(entry.getKey(), entry.getValue()));
+    }
 
-        String url = prometheusUrl + "/api/v1/query_range";
+    /**
+     * 차트 4종 스트림. 차트 순서와 관계없이 먼저 끝난 조회의 시리즈부터 내보낸다.
+     */
+    public Flux<ChartSeriesDTO> streamAllCharts() {
+        return Flux.fromIterable(charts().entrySet())
+                .flatMap(entry -> entry.getValue().map(series -> new ChartSeriesDTO(entry.getKey(), series)));
+    }
 
-        MultiValueMap<String,String> form = new LinkedMultiValueMap<>();
-        form.add("query", promql);
-        form.add("start", String.valueOf(start.getEpochSecond()));
-        form.add("end",   String.valueOf(end.getEpochSecond()));
-        form.add("step",  STEP + "s");
+    /** 시리즈 목록의 열 기반 표현 (조회 step 기준 공통 시각 축) */
+    public ColumnarChartDTO toColumnar(List<MetricDTO> series) {
+        return ColumnarSeries.of(series, STEP);
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+    private Map<String, Flux<MetricDTO>> charts() {
+        Map<String, Flux<MetricDTO>> charts = new LinkedHashMap<>();
+        charts.put("jvmCpu", getJvmCpuUsage());
+        charts.put("jvmHeap", getJvmHeapUsage());
+        charts.put("httpRequestRate", getHttpRequestRate());
+        charts.put("appVolumeUsage", getAppVolumeUsage());
+        return charts;
+    }
 
-        HttpEntity<MultiValueMap<String,String>> requestEntity = new HttpEntity<>(form, headers);
+    private Flux<MetricDTO> queryRange(String promql) {
+        return Mono.defer(() -> {
+            // 구간 끝을 step 경계로 맞춰 같은 버킷의 요청이 같은 쿼리가 되도록 함
+            Instant end   = QueryKeys.alignDown(Instant.now(), Duration.ofSeconds(STEP));
+            Instant start = end.minus(RANGE);
+            String normalized = QueryKeys.normalize(promql);
+            String cacheKey = normalized + "|" + STEP;
+
+            Long cachedEnd = rangeCache.lastEnd(cacheKey, start.getEpochSecond(), end.getEpochSecond());
+            if (cachedEnd != null && cachedEnd >= end.getEpochSecond()) {
+                return Mono.just(rangeCache.get(cacheKey, start.getEpochSecond()));
+            }
+            // 캐시에 있는 구간의 마지막 몇 step 부터 끝까지만 조회 (겹치는 구간은 새 값으로 교체)
+            Instant fetchStart = cachedEnd != null
+                    ? Instant.ofEpochSecond(Math.max(start.getEpochSecond(), cachedEnd - refetchSteps * STEP))
+                    : start;
+            String key = normalized + "|" + fetchStart.getEpochSecond() + "|" + end.getEpochSecond();
+
+            return inFlight.execute(key, () -> fetchRange(promql, fetchStart, end))
+                    .defaultIfEmpty(List.of())
+                    .map(fetched -> rangeCache.merge(cacheKey, fetched, fetchStart.getEpochSecond(),
+                            start.getEpochSecond(), end.getEpochSecond()));
+        }).flatMapIterable(series -> series);
+    }
 
-        String json = restTemplate.postForObject(url, requestEntity, String.class);
+    public Map<String, Object> getRangeCacheStats() {
+        return rangeCache.getStats();
+    }
 
-        return parsePrometheusJson(json);
+    private Mono<List<MetricDTO>> fetchRange(String promql, Instant start, Instant end) {
+        Flux<DataBuffer> body = webClient.post()
+                .uri("/api/v1/query_range")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(BodyInserters.fromFormData("query", promql)
+                        .with("start", String.valueOf(start.getEpochSecond()))
+                        .with("end", String.valueOf(end.getEpochSecond()))
+                        .with("step", STEP + "s"))
+                .retrieve()
+                .bodyToFlux(DataBuffer.class);
+
+        return DataBufferUtils.join(body)
+                .map(buffer -> {
+                    try (InputStream in = buffer.asInputStream(true)) {
+                        return parsePrometheusJson(in);
+                    } catch (IOException e) {
+                        throw new RuntimeException("Prometheus JSON parsing failed", e);
+                    }
+                });
     }
 
-    private List<MetricDTO> parsePrometheusJson(String json) {
+    private List<MetricDTO> parsePrometheusJson(InputStream json) throws IOException {
         List<MetricDTO> list = new ArrayList<>();
-        try {
-            JsonNode root = mapper.readTree(json)
-                    .path("data")
-                    .path("result");
-            for (JsonNode series : root) {
-                String seriesName = series.path("metric").toString();
-                // 필요시 metric 레이블만 추출해 가공 가능
-                List<DataPointDTO> points = new ArrayList<>();
-                for (JsonNode pair : series.path("values")) {
-                    long ts = pair.get(0).asLong();
-                    double val = pair.get(1).asDouble();
-                    points.add(new DataPointDTO(Instant.ofEpochSecond(ts), val));
-                }
-                list.add(new MetricDTO(seriesName, points));
+        PrometheusResultParser.readSeries(json, mapper, (labels, samples, size) -> {
+            // 필요시 metric 레이블만 추출해 가공 가능
+            String seriesName = mapper.valueToTree(labels).toString();
+            List<DataPointDTO> points = new ArrayList<>(size / 2);
+            for (int i = 0; i < size; i += 2) {
+                points.add(new DataPointDTO(Instant.ofEpochSecond((long) samples[i]), samples[i + 1]));
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Prometheus JSON parsing failed", e);
-        }
+            list.add(new MetricDTO(seriesName, points, Map.copyOf(labels)));
+        });
         return list;
     }
-}
\ No newline at end of file
+}
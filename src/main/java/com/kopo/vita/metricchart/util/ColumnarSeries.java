@@ -0,0 +1,92 @@
+package com.kopo.vita.metricchart.util;
+
+import com.kopo.vita.metricchart.dto.ColumnarChartDTO;
+import com.kopo.vita.metricchart.dto.ColumnarSeriesDTO;
+import com.kopo.vita.metricchart.dto.DataPointDTO;
+import com.kopo.vita.metricchart.dto.MetricDTO;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.*;
+
+/**
+ * 차트 시리즈의 열 기반 표현 (시각 축 공유 + 값 배열) 변환과 Accept 헤더 협상
+ */
+@UtilityClass
+public class ColumnarSeries {
+
+    public static final String JSON_VALUE = "application/vnd.vita.series+json";
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    // Accept 에 명시됐을 때만 선택 (와일드카드로는 기존 형식 유지)
+    private static final List<MediaType> FORMATS = List.of(
+            MediaType.parseMediaType(JSON_VALUE),
+            MediaType.parseMediaType(SMILE_VALUE),
+            MediaType.APPLICATION_CBOR
+    );
+
+    /**
+     * Accept 헤더에서 열 기반 형식 선택. 품질값 순으로 보다가 application/json 이 먼저 나오거나
+     * 열 기반 형식이 명시되지 않았으면 null (기존 JSON 응답)
+     */
+    public MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                break;
+            }
+            if (type.equalsTypeAndSubtype(MediaType.APPLICATION_JSON)) {
+                return null;
+            }
+            for (MediaType format : FORMATS) {
+                if (type.equalsTypeAndSubtype(format)) {
+                    return format;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 시리즈 목록을 step 간격 공통 시각 축의 값 배열로 변환.
+     * 축은 전체 시리즈의 첫 / 마지막 시각으로 정하고, 포인트가 없는 칸과 NaN 은 null
+     */
+    public ColumnarChartDTO of(List<MetricDTO> metrics, long stepSec) {
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (MetricDTO metric : metrics) {
+            for (DataPointDTO point : metric.getDataPoints()) {
+                long ts = point.getTimestamp().getEpochSecond();
+                first = Math.min(first, ts);
+                last = Math.max(last, ts);
+            }
+        }
+        if (first > last) {
+            return new ColumnarChartDTO(0, stepSec, List.of());
+        }
+
+        int size = (int) ((last - first) / stepSec) + 1;
+        List<ColumnarSeriesDTO> series = new ArrayList<>(metrics.size());
+        for (MetricDTO metric : metrics) {
+            Double[] values = new Double[size];
+            for (DataPointDTO point : metric.getDataPoints()) {
+                long offset = point.getTimestamp().getEpochSecond() - first;
+                if (offset % stepSec == 0 && !Double.isNaN(point.getValue())) {
+                    values[(int) (offset / stepSec)] = point.getValue();
+                }
+            }
+            series.add(new ColumnarSeriesDTO(metric.getLabels() != null ? metric.getLabels() : Map.of(), values));
+        }
+        return new ColumnarChartDTO(first, stepSec, series);
+    }
+}
@@ -0,0 +1,156 @@
+package com.kopo.vita.metricchart.util;
+
+import com.kopo.vita.metricchart.dto.DataPointDTO;
+import com.kopo.vita.metricchart.dto.MetricDTO;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * range query 결과 증분 캐시 (키: PromQL + step).
+ * 이전에 받은 포인트를 보관해 두고 새로 추가된 꼬리 구간(과 직전 몇 step)만 다시 조회해 합치며,
+ * 구간을 벗어난 앞부분은 제거한다. 전체 포인트 수가 상한을 넘으면 가장 오래 안 쓴 키부터 제거(LRU).
+ */
+public class RangeSeriesCache {
+
+    private static class Entry {
+        long lastEnd;                                                  // 마지막으로 조회한 구간 끝 (epoch sec)
+        final Map<String, TreeMap<Long, Double>> series = new LinkedHashMap<>();
+        final Map<String, Map<String, String>> labels = new HashMap<>();   // 시리즈 이름 → 라벨
+        long points;
+    }
+
+    private final long maxPoints;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalPoints;
+
+    private final LongAdder hits = new LongAdder();      // upstream 호출 없이 응답
+    private final LongAdder partial = new LongAdder();   // 꼬리 구간만 조회
+    private final LongAdder misses = new LongAdder();    // 전체 구간 조회
+
+    public RangeSeriesCache(long maxPoints) {
+        this.maxPoints = maxPoints;
+    }
+
+    /**
+     * 캐시에 저장된 구간 끝 (없으면 null). 캐시가 구간 끝까지 채워져 있으면 hit 으로 집계
+     */
+    public synchronized Long lastEnd(String key, long start, long end) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.lastEnd < start) {
+            misses.increment();
+            return null;
+        }
+        if (entry.lastEnd >= end) {
+            hits.increment();
+        } else {
+            partial.increment();
+        }
+        return entry.lastEnd;
+    }
+
+    /**
+     * [start, end] 구간의 캐시된 시리즈
+     */
+    public synchronized List<MetricDTO> get(String key, long start) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return List.of();
+        }
+        return toMetricDTOs(entry, start);
+    }
+
+    /**
+     * 새로 조회한 [fetchStart, end] 포인트로 캐시의 같은 구간을 교체하고, start 이전 포인트를 제거한 뒤 [start, end] 시리즈 반환.
+     * 조회 결과가 비어 있으면(빈 응답 등) 캐시된 포인트와 lastEnd 는 그대로 두고 다음 요청에서 다시 조회한다.
+     */
+    public synchronized List<MetricDTO> merge(String key, List<MetricDTO> fetched, long fetchStart, long start, long end) {
+        if (fetched.isEmpty()) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return List.of();
+            }
+            evictHead(entry, start);
+            return toMetricDTOs(entry, start);
+        }
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+        // 다시 조회한 구간의 이전 값은 버림 (새 응답에서 빠진 포인트도 남지 않도록)
+        for (TreeMap<Long, Double> points : entry.series.values()) {
+            SortedMap<Long, Double> tail = points.tailMap(fetchStart);
+            entry.points -= tail.size();
+            totalPoints -= tail.size();
+            tail.clear();
+        }
+
+        for (MetricDTO metric : fetched) {
+            TreeMap<Long, Double> points = entry.series.computeIfAbsent(metric.getSeriesName(), name -> new TreeMap<>());
+            if (metric.getLabels() != null) {
+                entry.labels.put(metric.getSeriesName(), metric.getLabels());
+            }
+            for (DataPointDTO point : metric.getDataPoints()) {
+                if (points.put(point.getTimestamp().getEpochSecond(), point.getValue()) == null) {
+                    entry.points++;
+                    totalPoints++;
+                }
+            }
+        }
+        evictHead(entry, start);
+        entry.lastEnd = Math.max(entry.lastEnd, end);
+        evictLeastRecentlyUsed(key);
+
+        return toMetricDTOs(entry, start);
+    }
+
+    // 구간을 벗어난 앞부분 제거
+    private void evictHead(Entry entry, long start) {
+        Iterator<Map.Entry<String, TreeMap<Long, Double>>> it = entry.series.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, TreeMap<Long, Double>> series = it.next();
+            TreeMap<Long, Double> points = series.getValue();
+            SortedMap<Long, Double> head = points.headMap(start);
+            int removed = head.size();
+            head.clear();
+            entry.points -= removed;
+            totalPoints -= removed;
+            if (points.isEmpty()) {
+                entry.labels.remove(series.getKey());
+                it.remove();
+            }
+        }
+    }
+
+    // 전체 포인트 수가 상한을 넘으면 방금 사용한 키를 제외하고 오래된 키부터 제거
+    private void evictLeastRecentlyUsed(String currentKey) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (totalPoints > maxPoints && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            if (eldest.getKey().equals(currentKey)) {
+                continue;
+            }
+            totalPoints -= eldest.getValue().points;
+            it.remove();
+        }
+    }
+
+    private List<MetricDTO> toMetricDTOs(Entry entry, long start) {
+        List<MetricDTO> list = new ArrayList<>(entry.series.size());
+        entry.series.forEach((name, points) -> {
+            List<DataPointDTO> dataPoints = new ArrayList<>(points.size());
+            points.tailMap(start, true).forEach((ts, value) ->
+                    dataPoints.add(new DataPointDTO(Instant.ofEpochSecond(ts), value)));
+            list.add(new MetricDTO(name, dataPoints, entry.labels.get(name)));
+        });
+        return list;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.sum());
+        stats.put("partial", partial.sum());
+        stats.put("misses", misses.sum());
+        stats.put("entries", entries.size());
+        stats.put("points", totalPoints);
+        return stats;
+    }
+}
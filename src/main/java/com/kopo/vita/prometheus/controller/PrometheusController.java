@@ -1,11 +1,29 @@
 package com.kopo.vita.prometheus.controller;
 
+import com.kopo.vita.common.util.ETags;
 import com.kopo.vita.prometheus.dto.ClusterMetricsDTO;
 import com.kopo.vita.prometheus.dto.PodDTO;
+import com.kopo.vita.prometheus.dto.PodKey;
+import com.kopo.vita.prometheus.dto.PodPageDTO;
+import com.kopo.vita.prometheus.dto.PodQueryDTO;
+import com.kopo.vita.prometheus.dto.SnapshotDTO;
+import com.kopo.vita.prometheus.service.PodStatePushService;
 import com.kopo.vita.prometheus.service.PrometheusService;
+import com.kopo.vita.prometheus.service.PrometheusSnapshotService;
+import com.kopo.vita.prometheus.util.PodIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -14,11 +32,23 @@ import java.util.List;
 @RequiredArgsConstructor
 public class PrometheusController {
 
+    // 스냅샷 경과 시간(초) 응답 헤더
+    public static final String SNAPSHOT_AGE_HEADER = "X-Snapshot-Age";
+
     private final PrometheusService prometheusService;
+    private final PrometheusSnapshotService snapshotService;
+    private final PodStatePushService pushService;
 
+    /** 클러스터 요약. 스냅샷 ETag 와 If-None-Match 가 같으면 304 */
     @GetMapping("/api/metrics/cluster-summary")
-    public Mono<ClusterMetricsDTO> getClusterSummary() {
-        return prometheusService.getClusterMetrics();
+    public Mono<ResponseEntity<ClusterMetricsDTO>> getClusterSummary(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        SnapshotDTO<ClusterMetricsDTO> snapshot = snapshotService.getClusterSnapshot();
+        if (snapshot != null) {
+            return Mono.just(withAge(snapshot, ifNoneMatch));
+        }
+        // 첫 스냅샷이 만들어지기 전에는 직접 조회
+        return prometheusService.getClusterMetrics().map(ResponseEntity::ok);
     }
 
     @GetMapping("/api/pod/list")
@@ -30,8 +60,89 @@ public class PrometheusController {
     public Mono<PodDTO> getPodInfo(String podName, String nameSpace) {
         return prometheusService.getPodInfo(podName, nameSpace);
     }
+
+    /** 여러 파드 상세 일괄 조회. body: [{"namespace": "...", "pod": "..."}, ...] */
+    @PostMapping("/api/pod/info/batch")
+    public Mono<List<PodDTO>> getPodInfos(@RequestBody List<PodKey> pods) {
+        return prometheusService.getPodInfos(pods);
+    }
+
+    /**
+     * 파드 상세 목록. 조건이 없으면 전체 목록,
+     * namespace / node / status / namePrefix / sort / order / limit / cursor 중 하나라도 있으면 한 페이지(PodPageDTO).
+     * 스냅샷에서 응답할 때는 ETag 를 붙이고 If-None-Match 가 같으면 304 (페이지는 스냅샷 ETag + 조건 digest)
+     */
     @GetMapping("/api/pod/list-detail")
-    public Mono<List<PodDTO>> getPodFullList() {
-        return prometheusService.getPodFullList();
+    public Mono<? extends ResponseEntity<?>> getPodFullList(
+            PodQueryDTO query,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (query.isUnfiltered()) {
+            SnapshotDTO<List<PodDTO>> snapshot = snapshotService.getPodSnapshot();
+            if (snapshot != null) {
+                return Mono.just(withAge(snapshot, ifNoneMatch));
+            }
+            return prometheusService.getPodFullList().map(ResponseEntity::ok);
+        }
+
+        try {
+            SnapshotDTO<PodIndex> index = snapshotService.getPodIndexSnapshot();
+            if (index != null) {
+                String etag = ETags.derive(index.getEtag(), query.toParams());
+                if (ETags.matches(ifNoneMatch, etag)) {
+                    return Mono.just(notModified(etag, index));
+                }
+                PodPageDTO page = index.getValue().query(query);
+                return Mono.just(withAge(new SnapshotDTO<>(page, index.getRefreshedAt(), etag), null));
+            }
+            // 첫 스냅샷 전에는 직접 조회한 목록으로 인덱스를 만들어 조회
+            return prometheusService.getPodFullList()
+                    .<ResponseEntity<?>>map(pods -> ResponseEntity.ok(new PodIndex(pods).query(query)))
+                    .onErrorResume(IllegalArgumentException.class,
+                            e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+
+        } catch (IllegalArgumentException e) {
+            // 잘못된 sort / cursor
+            return Mono.just(ResponseEntity.badRequest().body(e.getMessage()));
+        }
+    }
+
+    /** 파드 상세 목록 스트림 (NDJSON: 파드 하나당 한 줄) */
+    @GetMapping(value = "/api/pod/list-detail/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PodDTO> streamPodFullList() {
+        SnapshotDTO<List<PodDTO>> snapshot = snapshotService.getPodSnapshot();
+        if (snapshot != null) {
+            return Flux.fromIterable(snapshot.getValue());
+        }
+        return prometheusService.streamPodFullList();
+    }
+
+    /**
+     * 파드 / 클러스터 상태 구독 (SSE). 연결 시 full 한 번, 이후 스냅샷 갱신마다 delta
+     * (버전이 건너뛰면 full 을 다시 보냄). 재연결 시 Last-Event-ID 가 현재 버전이면 full 생략
+     */
+    @GetMapping(value = "/api/state/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamState(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return pushService.subscribe(lastEventId);
+    }
+
+    // 스냅샷 응답 (ETag 가 If-None-Match 와 같으면 본문 없이 304)
+    private <T> ResponseEntity<T> withAge(SnapshotDTO<T> snapshot, String ifNoneMatch) {
+        if (ETags.matches(ifNoneMatch, snapshot.getEtag())) {
+            return notModified(snapshot.getEtag(), snapshot);
+        }
+        return ResponseEntity.ok()
+                .header(SNAPSHOT_AGE_HEADER, String.valueOf(snapshot.getAgeSeconds()))
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(snapshot.getValue());
+    }
+
+    private <T> ResponseEntity<T> notModified(String etag, SnapshotDTO<?> snapshot) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .header(SNAPSHOT_AGE_HEADER, String.valueOf(snapshot.getAgeSeconds()))
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .build();
     }
 }
@@ -0,0 +1,7 @@
+package com.kopo.vita.prometheus.dto;
+
+/**
+ * 파드 식별 키 (namespace, pod)
+ */
+public record PodKey(String namespace, String pod) {
+}
@@ -0,0 +1,16 @@
+package com.kopo.vita.prometheus.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class PodPageDTO {
+
+    private List<PodDTO> items;
+
+    private String nextCursor;   // 다음 페이지가 없으면 null
+
+}
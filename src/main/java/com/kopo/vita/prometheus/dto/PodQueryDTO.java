@@ -0,0 +1,56 @@
+package com.kopo.vita.prometheus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 파드 상세 목록 조회 조건 (모두 선택 사항)
+ * sort: cpu | memory | networkReceive | networkTransmit | restartCount, order: desc(기본) | asc
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PodQueryDTO {
+
+    private String namespace;
+
+    private String node;
+
+    private String status;
+
+    private String namePrefix;
+
+    private String sort;
+
+    private String order;
+
+    private Integer limit;
+
+    private String cursor;       // 이전 페이지의 nextCursor
+
+    /** 조회 조건 이름 → 값 (페이지 ETag 계산용, null 은 조건 없음) */
+    public Map<String, Object> toParams() {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("namespace", namespace);
+        params.put("node", node);
+        params.put("status", status);
+        params.put("namePrefix", namePrefix);
+        params.put("sort", sort);
+        params.put("order", order);
+        params.put("limit", limit);
+        params.put("cursor", cursor);
+        return params;
+    }
+
+    // 조건이 하나도 없으면 기존처럼 전체 목록을 그대로 반환
+    public boolean isUnfiltered() {
+        return namespace == null && node == null && status == null && namePrefix == null
+                && sort == null && order == null && limit == null && cursor == null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.kopo.vita.prometheus.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 파드 / 클러스터 상태 push 이벤트.
+ * full: pods + cluster 전체, delta: baseVersion 상태에 added / removed / changed / clusterChanged 를 적용하면 version 상태
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PodStateEventDTO {
+
+    private long version;
+
+    private Long baseVersion;                         // delta 만
+
+    private List<PodDTO> pods;                        // full 만
+
+    private Map<String, Object> cluster;              // full 만 (ClusterMetricsDTO 의 필드)
+
+    private List<PodDTO> added;
+
+    private List<PodKey> removed;
+
+    private List<Map<String, Object>> changed;        // {namespace, pod, 바뀐 필드...}
+
+    private Map<String, Object> clusterChanged;       // 바뀐 최상위 필드만
+
+}
@@ -0,0 +1,34 @@
+package com.kopo.vita.prometheus.dto;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 백그라운드에서 주기적으로 갱신되는 조회 결과 스냅샷 (불변)
+ */
+@Getter
+public class SnapshotDTO<T> {
+
+    private final T value;
+
+    private final Instant refreshedAt;   // 스냅샷 생성 시각
+
+    private final String etag;           // 내용 해시 (갱신 시 한 번 계산, 내용이 같으면 같은 값)
+
+    public SnapshotDTO(T value, Instant refreshedAt) {
+        this(value, refreshedAt, null);
+    }
+
+    public SnapshotDTO(T value, Instant refreshedAt, String etag) {
+        this.value = value;
+        this.refreshedAt = refreshedAt;
+        this.etag = etag;
+    }
+
+    // 스냅샷 경과 시간 (초)
+    public long getAgeSeconds() {
+        return Duration.between(refreshedAt, Instant.now()).toSeconds();
+    }
+}
@@ -74,4 +74,72 @@ public class PrometheusQueries {
     // 파드 재시작 횟수 (모든 컨테이너 합산)
     public static final String POD_RESTART_COUNT = "sum(kube_pod_container_status_restarts_total{pod=\"%s\", namespace=\"%s\"})";
 
+    // ---- 파드 상세 목록 (namespace, pod 단위) ----
+
+    // 파드별 cpu 사용량
+    public static final String POD_LIST_CPU = "sum(rate(container_cpu_usage_seconds_total{container!=\"\"}[5m])) by (namespace, pod)";
+
+    // 파드별 메모리 사용량 (바이트)
+    public static final String POD_LIST_MEMORY = "sum(container_memory_usage_bytes{container!=\"\"}) by (namespace, pod)";
+
+    // 파드별 네트워크 송신량
+    public static final String POD_LIST_NETWORK_TRANSMIT = "sum(rate(container_network_transmit_bytes_total{container!=\"\"}[5m])) by (namespace, pod)";
+
+    // 파드별 네트워크 수신량
+    public static final String POD_LIST_NETWORK_RECEIVE = "sum(rate(container_network_receive_bytes_total{container!=\"\"}[5m])) by (namespace, pod)";
+
+    // 파드별 생성 시간 (Unix timestamp)
+    public static final String POD_LIST_CREATED = "max(kube_pod_created) by (namespace, pod)";
+
+    // 파드별 재시작 횟수
+    public static final String POD_LIST_RESTARTS = "sum(kube_pod_container_status_restarts_total) by (namespace, pod)";
+
+    // 모든 파드의 phase
+    public static final String POD_LIST_PHASE = "kube_pod_status_phase";
+
+    // CrashLoopBackOff 상태인 파드
+    public static final String POD_LIST_CRASH = "max(kube_pod_container_status_waiting_reason{reason=\"CrashLoopBackOff\"}) by (namespace, pod)";
+
+    // ---- 여러 파드 상세 일괄 조회 (namespace 하나 + pod 정규식, 인자: namespace, pod 정규식) ----
+
+    public static final String POD_BATCH_INFO = "kube_pod_info{namespace=\"%s\", pod=~\"%s\"}";
+
+    public static final String POD_BATCH_CPU = "sum(rate(container_cpu_usage_seconds_total{namespace=\"%s\", pod=~\"%s\", container!=\"\"}[5m])) by (namespace, pod)";
+
+    public static final String POD_BATCH_MEMORY = "sum(container_memory_usage_bytes{namespace=\"%s\", pod=~\"%s\", container!=\"\"}) by (namespace, pod)";
+
+    public static final String POD_BATCH_NETWORK_TRANSMIT = "sum(rate(container_network_transmit_bytes_total{namespace=\"%s\", pod=~\"%s\"}[5m])) by (namespace, pod)";
+
+    public static final String POD_BATCH_NETWORK_RECEIVE = "sum(rate(container_network_receive_bytes_total{namespace=\"%s\", pod=~\"%s\"}[5m])) by (namespace, pod)";
+
+    public static final String POD_BATCH_CREATED = "max(kube_pod_created{namespace=\"%s\", pod=~\"%s\"}) by (namespace, pod)";
+
+    public static final String POD_BATCH_RESTARTS = "sum(kube_pod_container_status_restarts_total{namespace=\"%s\", pod=~\"%s\"}) by (namespace, pod)";
+
+    public static final String POD_BATCH_PHASE = "kube_pod_status_phase{namespace=\"%s\", pod=~\"%s\"}";
+
+    public static final String POD_BATCH_CRASH = "max(kube_pod_container_status_waiting_reason{namespace=\"%s\", pod=~\"%s\", reason=\"CrashLoopBackOff\"}) by (namespace, pod)";
+
+    // 단일 쿼리 모드: 각 결과 시리즈에 어떤 지표인지 표시하는 라벨
+    public static final String METRIC_TAG_LABEL = "__vita_metric";
+
+    // 단일 쿼리 모드: 쿼리 결과에 METRIC_TAG_LABEL 을 붙이는 래퍼 (쿼리, 지표 이름)
+    public static final String METRIC_TAG_TEMPLATE = "label_replace(%s, \"" + METRIC_TAG_LABEL + "\", \"%s\", \"\", \"\")";
+
+    // 단일 쿼리 모드: 파드 상세 목록에 필요한 모든 지표를 라벨로 구분해 `or` 로 합친 쿼리
+    public static final String POD_LIST_COMBINED = String.join(" or ",
+            tagged(POD_LIST, "info"),
+            tagged(POD_LIST_CPU, "cpu"),
+            tagged(POD_LIST_MEMORY, "memory"),
+            tagged(POD_LIST_NETWORK_TRANSMIT, "netTx"),
+            tagged(POD_LIST_NETWORK_RECEIVE, "netRx"),
+            tagged(POD_LIST_CREATED, "created"),
+            tagged(POD_LIST_RESTARTS, "restarts"),
+            tagged(POD_LIST_PHASE, "phase"),
+            tagged(POD_LIST_CRASH, "crash"));
+
+    private static String tagged(String query, String metric) {
+        return String.format(METRIC_TAG_TEMPLATE, query, metric);
+    }
+
 }
@@ -0,0 +1,274 @@
+package com.kopo.vita.prometheus.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kopo.vita.prometheus.dto.ClusterMetricsDTO;
+import com.kopo.vita.prometheus.dto.PodDTO;
+import com.kopo.vita.prometheus.dto.PodKey;
+import com.kopo.vita.prometheus.dto.PodStateEventDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 파드 / 클러스터 상태 변경분 push.
+ * 스냅샷이 갱신될 때마다 마지막으로 알린 상태와 비교한 delta 를 한 번만 계산 / 직렬화해서 모든 구독자에게 보낸다.
+ * 구독 시에는 전체 상태(full)를 먼저 보내고, 느린 구독자는 최신 이벤트만 남기고(conflation)
+ * 버전이 이어지지 않으면 delta 대신 전체 상태를 다시 보낸다.
+ * 재연결 시 Last-Event-ID 가 현재 버전과 같으면 full 을 생략하고, 연결이 끊기지 않도록 주기적으로 keepalive 주석을 보낸다.
+ */
+@Service
+@Slf4j
+public class PodStatePushService {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    /** 구독자에게 알린 상태 (불변, 전체 상태 JSON 은 처음 필요할 때 한 번만 만듦) */
+    private final class Published {
+        final long version;
+        final Map<PodKey, PodDTO> pods;
+        // 클러스터 요약 필드 (알린 값, 아직 받은 적 없으면 null)
+        final Map<String, Object> clusterFields;
+        private volatile String fullJson;
+
+        Published(long version, Map<PodKey, PodDTO> pods, Map<String, Object> clusterFields) {
+            this.version = version;
+            this.pods = pods;
+            this.clusterFields = clusterFields;
+        }
+
+        ServerSentEvent<String> fullEvent() {
+            String json = fullJson;
+            if (json == null) {
+                json = toJson(PodStateEventDTO.builder()
+                        .version(version)
+                        .pods(List.copyOf(pods.values()))
+                        .cluster(clusterFields)
+                        .build());
+                fullJson = json;
+            }
+            return ServerSentEvent.builder(json).id(String.valueOf(version)).event("full").build();
+        }
+    }
+
+    /** 한 번 직렬화한 delta (baseVersion 이 구독자의 마지막 버전과 같을 때만 그대로 전송) */
+    private record Delta(long baseVersion, long version, ServerSentEvent<String> event) {
+    }
+
+    private final ObjectMapper objectMapper;
+    // 지표 값이 이 비율 이상 바뀐 파드 / 클러스터 필드만 보냄 (그 외 필드는 값이 다르면 항상)
+    private final double minChange;
+    // keepalive 주석 간격
+    private final Duration heartbeat;
+    // 연결 하나의 최대 유지 시간 (이후 완료 → EventSource 가 Last-Event-ID 로 재연결)
+    private final Duration maxDuration;
+    private final Sinks.Many<Delta> deltas = Sinks.many().multicast().directBestEffort();
+
+    private volatile Published published = new Published(0, Map.of(), null);
+
+    public PodStatePushService(ObjectMapper objectMapper,
+                               @Value("${prometheus.push.min-change:0.01}") double minChange,
+                               @Value("${prometheus.push.heartbeat:15000}") long heartbeatMs,
+                               @Value("${prometheus.push.max-duration:3600000}") long maxDurationMs) {
+        this.objectMapper = objectMapper;
+        this.minChange = minChange;
+        this.heartbeat = Duration.ofMillis(heartbeatMs);
+        this.maxDuration = Duration.ofMillis(maxDurationMs);
+    }
+
+    /**
+     * 상태 스트림: full 이후 delta (+ keepalive 주석), maxDuration 이 지나면 완료.
+     * 구독자별로 최신 delta 하나만 대기시키고, 건너뛴 버전이 있으면 그 시점의 전체 상태로 대신한다.
+     * @param lastEventId 재연결 시 클라이언트가 마지막으로 받은 버전 (현재 버전과 같으면 full 생략, 없으면 null)
+     */
+    public Flux<ServerSentEvent<String>> subscribe(Long lastEventId) {
+        return Flux.defer(() -> {
+            Published initial = published;
+            long[] last = {initial.version};
+            boolean resumed = lastEventId != null && lastEventId == initial.version && initial.version > 0;
+            Flux<ServerSentEvent<String>> updates = deltas.asFlux()
+                    .onBackpressureLatest()
+                    .filter(delta -> delta.version() > last[0])
+                    .map(delta -> {
+                        if (delta.baseVersion() == last[0]) {
+                            last[0] = delta.version();
+                            return delta.event();
+                        }
+                        Published current = published;
+                        last[0] = current.version;
+                        return current.fullEvent();
+                    });
+            Flux<ServerSentEvent<String>> keepalive = Flux.interval(heartbeat, heartbeat)
+                    .map(tick -> ServerSentEvent.<String>builder().comment("keepalive").build());
+            Flux<ServerSentEvent<String>> head = resumed ? Flux.empty() : Flux.just(initial.fullEvent());
+            return Flux.merge(Flux.concat(head, updates), keepalive);
+        }).take(maxDuration);
+    }
+
+    public Map<String, Object> getStats() {
+        Published current = published;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", deltas.currentSubscriberCount());
+        stats.put("version", current.version);
+        stats.put("pods", current.pods.size());
+        return stats;
+    }
+
+    /**
+     * 새 스냅샷 반영 (스냅샷 갱신 스레드에서만 호출). 바뀐 것이 없으면 이벤트를 보내지 않는다.
+     * pods / cluster 가 null 이면 해당 부분은 이전 상태 유지
+     */
+    public void publish(List<PodDTO> pods, ClusterMetricsDTO cluster) {
+        Published prev = published;
+
+        List<PodDTO> added = new ArrayList<>();
+        List<PodKey> removed = new ArrayList<>();
+        List<Map<String, Object>> changed = new ArrayList<>();
+        Map<PodKey, PodDTO> nextPods = prev.pods;
+        if (pods != null) {
+            nextPods = new LinkedHashMap<>(pods.size() * 2);
+            for (PodDTO pod : pods) {
+                PodKey key = new PodKey(pod.getNameSpace(), pod.getPodName());
+                PodDTO before = prev.pods.get(key);
+                if (before == null) {
+                    added.add(pod);
+                    nextPods.put(key, pod);
+                    continue;
+                }
+                Map<String, Object> diff = diff(before, pod);
+                if (diff == null) {
+                    // 알린 값 유지 (작은 변화는 누적해서 다음 비교에 반영)
+                    nextPods.put(key, before);
+                    continue;
+                }
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("namespace", key.namespace());
+                entry.put("pod", key.pod());
+                entry.putAll(diff);
+                changed.add(entry);
+                nextPods.put(key, pod);
+            }
+            for (PodKey key : prev.pods.keySet()) {
+                if (!nextPods.containsKey(key)) {
+                    removed.add(key);
+                }
+            }
+        }
+
+        Map<String, Object> nextClusterFields = prev.clusterFields;
+        Map<String, Object> clusterChanged = new LinkedHashMap<>();
+        if (cluster != null) {
+            Map<String, Object> fields = objectMapper.convertValue(cluster, MAP_TYPE);
+            if (prev.clusterFields == null) {
+                nextClusterFields = fields;
+                clusterChanged.putAll(fields);
+            } else {
+                // 크게 바뀐 필드만 새 값으로 (작은 변화는 알린 값을 유지해 다음 비교에 누적)
+                nextClusterFields = new LinkedHashMap<>(prev.clusterFields);
+                for (var field : fields.entrySet()) {
+                    if (changedSignificantly(prev.clusterFields.get(field.getKey()), field.getValue())) {
+                        nextClusterFields.put(field.getKey(), field.getValue());
+                        clusterChanged.put(field.getKey(), field.getValue());
+                    }
+                }
+            }
+        }
+
+        if (added.isEmpty() && removed.isEmpty() && changed.isEmpty() && clusterChanged.isEmpty()) {
+            return;
+        }
+
+        long version = prev.version + 1;
+        Published next = new Published(version, Collections.unmodifiableMap(nextPods), nextClusterFields);
+        published = next;
+
+        String json = toJson(PodStateEventDTO.builder()
+                .version(version)
+                .baseVersion(prev.version)
+                .added(added.isEmpty() ? null : added)
+                .removed(removed.isEmpty() ? null : removed)
+                .changed(changed.isEmpty() ? null : changed)
+                .clusterChanged(clusterChanged.isEmpty() ? null : clusterChanged)
+                .build());
+        deltas.tryEmitNext(new Delta(prev.version, version,
+                ServerSentEvent.builder(json).id(String.valueOf(version)).event("delta").build()));
+    }
+
+    // 바뀐 필드만 (지표 값은 minChange 비율 이상 바뀌어야 변경으로 봄, 변경이 없으면 null)
+    private Map<String, Object> diff(PodDTO before, PodDTO after) {
+        boolean significant = !Objects.equals(before.getStatus(), after.getStatus())
+                || !Objects.equals(before.getNodeName(), after.getNodeName())
+                || !Objects.equals(before.getUid(), after.getUid())
+                || !Objects.equals(before.getPodId(), after.getPodId())
+                || !Objects.equals(before.getCreatedAt(), after.getCreatedAt())
+                || before.getRestartCount() != after.getRestartCount()
+                || moved(before.getCpu(), after.getCpu())
+                || moved(before.getMemory(), after.getMemory())
+                || moved(before.getNetworkReceive(), after.getNetworkReceive())
+                || moved(before.getNetworkTransmit(), after.getNetworkTransmit());
+        if (!significant) {
+            return null;
+        }
+        // 보낼 때는 값이 다른 필드를 모두 보내 클라이언트 상태가 새 값과 정확히 같아지도록 함
+        Map<String, Object> fields = new LinkedHashMap<>();
+        putIfChanged(fields, "status", before.getStatus(), after.getStatus());
+        putIfChanged(fields, "nodeName", before.getNodeName(), after.getNodeName());
+        putIfChanged(fields, "uid", before.getUid(), after.getUid());
+        putIfChanged(fields, "podId", before.getPodId(), after.getPodId());
+        putIfChanged(fields, "createdAt", before.getCreatedAt(), after.getCreatedAt());
+        putIfChanged(fields, "restartCount", before.getRestartCount(), after.getRestartCount());
+        putIfChanged(fields, "cpu", before.getCpu(), after.getCpu());
+        putIfChanged(fields, "memory", before.getMemory(), after.getMemory());
+        putIfChanged(fields, "networkReceive", before.getNetworkReceive(), after.getNetworkReceive());
+        putIfChanged(fields, "networkTransmit", before.getNetworkTransmit(), after.getNetworkTransmit());
+        return fields;
+    }
+
+    // 클러스터 필드 비교: 실수는 minChange 비율, 노드 / PVC 별 맵은 키가 바뀌거나 값 하나라도 크게 바뀌면, 그 외(개수 등)는 값이 다르면
+    private boolean changedSignificantly(Object before, Object after) {
+        if (before instanceof Double b && after instanceof Double a) {
+            return moved(b, a);
+        }
+        if (before instanceof Map<?, ?> b && after instanceof Map<?, ?> a) {
+            if (!b.keySet().equals(a.keySet())) {
+                return true;
+            }
+            for (var entry : a.entrySet()) {
+                if (changedSignificantly(b.get(entry.getKey()), entry.getValue())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return !Objects.equals(before, after);
+    }
+
+    private boolean moved(double before, double after) {
+        if (Double.compare(before, after) == 0) {
+            return false;
+        }
+        double scale = Math.max(Math.abs(before), Math.abs(after));
+        return Double.isNaN(scale) || Math.abs(after - before) > minChange * scale;
+    }
+
+    private static void putIfChanged(Map<String, Object> fields, String name, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            fields.put(name, after);
+        }
+    }
+
+    private String toJson(PodStateEventDTO event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,175 +1,300 @@
 package com.kopo.vita.prometheus.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kopo.vita.common.util.QueryKeys;
+import com.kopo.vita.common.util.SingleFlight;
+import com.kopo.vita.common.util.SingleFlightRegistry;
 import com.kopo.vita.prometheus.dto.ClusterMetricsDTO;
 import com.kopo.vita.prometheus.dto.PodDTO;
+import com.kopo.vita.prometheus.dto.PodKey;
 import com.kopo.vita.prometheus.query.PrometheusQueries;
+import com.kopo.vita.prometheus.util.PodMetricTable;
 import com.kopo.vita.prometheus.util.PrometheusResultParser;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 @Service
 public class PrometheusService {
 
     private final WebClient webClient;
-
-    public PrometheusService(@Value("${prometheus.base-url}") String baseUrl) {
+    private final ObjectMapper objectMapper;
+    private final boolean combinedPodList;
+    // 일괄 조회 시 pod 정규식 한 개의 최대 길이 (넘으면 쿼리를 나눔)
+    private final int podBatchMaxRegexLength;
+    // 같은 PromQL 동시 요청은 upstream 호출 하나를 공유
+    private final SingleFlight<String, byte[]> inFlight;
+
+    public PrometheusService(@Value("${prometheus.base-url}") String baseUrl,
+                             @Value("${prometheus.pod-list.mode:split}") String podListMode,
+                             @Value("${prometheus.pod-batch.max-regex-length:1500}") int podBatchMaxRegexLength,
+                             ObjectMapper objectMapper,
+                             SingleFlightRegistry singleFlightRegistry) {
         this.webClient = WebClient.builder()
                 .baseUrl(baseUrl)
                 .build();
+        this.objectMapper = objectMapper;
+        this.combinedPodList = "combined".equalsIgnoreCase(podListMode);
+        this.podBatchMaxRegexLength = podBatchMaxRegexLength;
+        this.inFlight = singleFlightRegistry.create("prometheus.query");
+    }
+
+    /**
+     * instant query 실행 후 응답 바이트를 decoder 로 바로 디코딩 (String 변환 없음)
+     */
+    public <T> Mono<T> query(String promql, Function<InputStream, T> decoder) {
+        return fetch(promql).map(bytes -> decoder.apply(new ByteArrayInputStream(bytes)));
+    }
+
+    /**
+     * instant query 응답 본문. 정규화한 쿼리가 같은 동시 요청은 하나의 호출을 공유하므로 (전송은 원본 쿼리)
+     * 응답은 여러 구독자가 각자 디코딩할 수 있게 byte[] 로 한 번만 복사해 둔다.
+     */
+    private Mono<byte[]> fetch(String promql) {
+        String normalized = QueryKeys.normalize(promql);
+        return inFlight.execute(normalized, () -> {
+            Flux<DataBuffer> body = webClient.post()
+                    .uri("/api/v1/query")
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                    .body(BodyInserters.fromFormData("query", promql))
+                    .retrieve()
+                    .bodyToFlux(DataBuffer.class);
+
+            return DataBufferUtils.join(body)
+                    .map(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        return bytes;
+                    });
+        });
+    }
+
+    // 여러 쿼리를 병렬 실행하고 key → 디코딩 결과 맵으로 모음
+    private <T> Mono<Map<String, T>> queryAll(Map<String, String> queries,
+                                              BiFunction<InputStream, ObjectMapper, T> decoder) {
+        return Flux.fromIterable(queries.entrySet())
+                .flatMap(entry -> query(entry.getValue(), in -> decoder.apply(in, objectMapper))
+                        .map(result -> Map.entry(entry.getKey(), result)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
     }
 
-    public Mono<String> query(String promql) {
-        return webClient.post()
-                .uri("/api/v1/query")
-                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-                .body(BodyInserters.fromFormData("query", promql))
-                .retrieve()
-                .bodyToMono(String.class);
+    // 여러 쿼리를 병렬 실행하고 key → 응답 본문 맵으로 모음
+    private Mono<Map<String, byte[]>> fetchAll(Map<String, String> queries) {
+        return Flux.fromIterable(queries.entrySet())
+                .flatMap(entry -> fetch(entry.getValue())
+                        .map(result -> Map.entry(entry.getKey(), result)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
     }
 
+    /**
+     * 파드 상세 목록. prometheus.pod-list.mode 에 따라
+     * split(지표별 쿼리 9회) 또는 combined(라벨로 합친 쿼리 1회) 로 조회
+     */
     public Mono<List<PodDTO>> getPodFullList() {
-        ObjectMapper objectMapper = new ObjectMapper();
+        return getPodTable().map(PodMetricTable::toPodDTOList);
+    }
+
+    /**
+     * 파드 상세 목록 스트림. 조인이 끝난 테이블에서 행을 하나씩 PodDTO 로 만들어 내보내므로
+     * 전체 목록을 한꺼번에 만들지 않는다.
+     */
+    public Flux<PodDTO> streamPodFullList() {
+        return getPodTable().flatMapMany(table -> Flux.range(0, table.size()).mapNotNull(table::toPodDTO));
+    }
+
+    private Mono<PodMetricTable> getPodTable() {
+        return combinedPodList ? getPodTableCombined() : getPodTableSplit();
+    }
+
+    private Mono<PodMetricTable> getPodTableCombined() {
+        return query(PrometheusQueries.POD_LIST_COMBINED, in -> PrometheusResultParser.extractCombinedPodTable(in, objectMapper));
+    }
+
+    private Mono<PodMetricTable> getPodTableSplit() {
         Map<String, String> queries = Map.of(
-                "cpu", "sum(rate(container_cpu_usage_seconds_total{container!=\"\"}[5m])) by (namespace, pod)",
-                "memory", "sum(container_memory_usage_bytes{container!=\"\"}) by (namespace, pod)",
-                "netTx", "sum(rate(container_network_transmit_bytes_total{container!=\"\"}[5m])) by (namespace, pod)",
-                "netRx", "sum(rate(container_network_receive_bytes_total{container!=\"\"}[5m])) by (namespace, pod)",
-                "created", "max(kube_pod_created) by (namespace, pod)",
-                "restarts", "sum(kube_pod_container_status_restarts_total) by (namespace, pod)",
-                // (1) 모든 상태 phase 한 번에
-                "phase", "kube_pod_status_phase",
-                // (2) CrashLoopBackOff 등 특별한 상태
-                "crash", "max(kube_pod_container_status_waiting_reason{reason=\"CrashLoopBackOff\"}) by (namespace, pod)",
-                "info", "kube_pod_info"
+                "info", PrometheusQueries.POD_LIST,
+                "cpu", PrometheusQueries.POD_LIST_CPU,
+                "memory", PrometheusQueries.POD_LIST_MEMORY,
+                "netTx", PrometheusQueries.POD_LIST_NETWORK_TRANSMIT,
+                "netRx", PrometheusQueries.POD_LIST_NETWORK_RECEIVE,
+                "created", PrometheusQueries.POD_LIST_CREATED,
+                "restarts", PrometheusQueries.POD_LIST_RESTARTS,
+                // 모든 상태 phase 한 번에
+                "phase", PrometheusQueries.POD_LIST_PHASE,
+                // CrashLoopBackOff 등 특별한 상태
+                "crash", PrometheusQueries.POD_LIST_CRASH
         );
 
-        List<Mono<Map.Entry<String, String>>> queryMonos = queries.entrySet().stream()
-                .map(entry -> query(entry.getValue())
-                        .map(result -> Map.entry(entry.getKey(), result)))
-                .collect(Collectors.toList());
-
-        return Mono.zip(queryMonos, results -> {
-            Map<String, String> rawResultMap = new LinkedHashMap<>();
-            for (Object obj : results) {
-                @SuppressWarnings("unchecked")
-                Map.Entry<String, String> entry = (Map.Entry<String, String>) obj;
-                rawResultMap.put(entry.getKey(), entry.getValue());
+        // 응답은 병렬로 받고, 디코딩은 한 스레드에서 같은 테이블에 채움
+        return fetchAll(queries).map(raw -> {
+            PodMetricTable table = new PodMetricTable();
+            fillPodTable(table, raw);
+            return table;
+        });
+    }
+
+    // 지표별 응답(키: info, cpu, memory, netTx, netRx, created, restarts, phase, crash)을 테이블에 채움
+    private void fillPodTable(PodMetricTable table, Map<String, byte[]> raw) {
+        // kube_pod_info 로 행을 먼저 만든 뒤 나머지 지표는 행 번호로 채움
+        PrometheusResultParser.readPodInfo(body(raw, "info"), objectMapper, table);
+        PrometheusResultParser.readPodColumn(body(raw, "cpu"), objectMapper, table, PodMetricTable.CPU);
+        PrometheusResultParser.readPodColumn(body(raw, "memory"), objectMapper, table, PodMetricTable.MEMORY);
+        PrometheusResultParser.readPodColumn(body(raw, "netTx"), objectMapper, table, PodMetricTable.NET_TX);
+        PrometheusResultParser.readPodColumn(body(raw, "netRx"), objectMapper, table, PodMetricTable.NET_RX);
+        PrometheusResultParser.readPodColumn(body(raw, "created"), objectMapper, table, PodMetricTable.CREATED);
+        PrometheusResultParser.readPodColumn(body(raw, "restarts"), objectMapper, table, PodMetricTable.RESTARTS);
+        PrometheusResultParser.readPodColumn(body(raw, "crash"), objectMapper, table, PodMetricTable.CRASH);
+        PrometheusResultParser.readPodPhase(body(raw, "phase"), objectMapper, table);
+    }
+
+    /**
+     * 여러 파드 상세 일괄 조회.
+     * namespace 별로 파드 이름을 pod=~"a|b|c" 정규식으로 묶어 지표마다 쿼리 하나씩 보내므로
+     * 쿼리 수는 파드 수가 아니라 (namespace, 정규식 조각) 수에 비례한다.
+     * 정규식이 podBatchMaxRegexLength 를 넘으면 조각으로 나눈다. 찾지 못한 파드는 결과에서 빠진다.
+     */
+    public Mono<List<PodDTO>> getPodInfos(List<PodKey> pods) {
+        Map<String, Set<String>> byNamespace = new LinkedHashMap<>();
+        for (PodKey key : pods) {
+            if (key.namespace() == null || key.pod() == null) {
+                continue;
             }
+            byNamespace.computeIfAbsent(key.namespace(), ns -> new LinkedHashSet<>()).add(key.pod());
+        }
 
-            Map<String, Map<String, Double>> cpuMap = PrometheusResultParser.extractPodMetric(rawResultMap.get("cpu"), objectMapper);
-            Map<String, Map<String, Double>> memoryMap = PrometheusResultParser.extractPodMetric(rawResultMap.get("memory"), objectMapper);
-            Map<String, Map<String, Double>> netTxMap = PrometheusResultParser.extractPodMetric(rawResultMap.get("netTx"), objectMapper);
-            Map<String, Map<String, Double>> netRxMap = PrometheusResultParser.extractPodMetric(rawResultMap.get("netRx"), objectMapper);
-            Map<String, Map<String, Double>> createdMap = PrometheusResultParser.extractPodMetric(rawResultMap.get("created"), objectMapper);
-            Map<String, Map<String, Double>> restartsMap = PrometheusResultParser.extractPodMetric(rawResultMap.get("restarts"), objectMapper);
-
-            // (1) 모든 phase 정보
-            Map<String, Map<String, Map<String, Double>>> phaseMap = PrometheusResultParser.extractPodPhaseMetric(rawResultMap.get("phase"), objectMapper);
-            // (2) CrashLoopBackOff 상태
-            Map<String, Map<String, Double>> crashMap = PrometheusResultParser.extractPodMetric(rawResultMap.get("crash"), objectMapper);
-
-            List<PodDTO> podInfos = PrometheusResultParser.extractPodDTOList(rawResultMap.get("info"), objectMapper);
-
-            List<PodDTO> fullList = podInfos.stream().map(pod -> {
-                String ns = pod.getNameSpace();
-                String name = pod.getPodName();
-
-                double cpu = cpuMap.getOrDefault(ns, Collections.emptyMap()).getOrDefault(name, 0.0);
-                double memory = memoryMap.getOrDefault(ns, Collections.emptyMap()).getOrDefault(name, 0.0) / 1024 / 1024;
-                double netTx = netTxMap.getOrDefault(ns, Collections.emptyMap()).getOrDefault(name, 0.0);
-                double netRx = netRxMap.getOrDefault(ns, Collections.emptyMap()).getOrDefault(name, 0.0);
-                Double createdEpoch = createdMap.getOrDefault(ns, Collections.emptyMap()).getOrDefault(name, null);
-                String createdAt = createdEpoch != null ? Instant.ofEpochSecond(createdEpoch.longValue()).toString() : null;
-                Long restartCount = restartsMap.getOrDefault(ns, Collections.emptyMap()).getOrDefault(name, 0.0).longValue();
-
-                // (1) 모든 phase 한 번에 처리
-                String status = "Unknown";
-                Map<String, Double> podPhases = phaseMap.getOrDefault(ns, Collections.emptyMap()).getOrDefault(name, Collections.emptyMap());
-                // (2) CrashLoopBackOff 등 특별상태
-                if (crashMap.getOrDefault(ns, Collections.emptyMap()).getOrDefault(name, 0.0) > 0) {
-                    status = "CrashLoopBackOff";
-                } else if (podPhases.getOrDefault("Failed", 0.0) > 0) {
-                    status = "Failed";
-                } else if (podPhases.getOrDefault("Pending", 0.0) > 0) {
-                    status = "Pending";
-                } else if (podPhases.getOrDefault("Succeeded", 0.0) > 0) {
-                    status = "Succeeded";
-                } else if (podPhases.getOrDefault("Running", 0.0) > 0) {
-                    status = "Running";
-                }
-
-                return PodDTO.builder()
-                        .podName(name)
-                        .podId(pod.getPodId())
-                        .nameSpace(ns)
-                        .cpu(cpu)
-                        .memory(memory)
-                        .networkTransmit(netTx)
-                        .networkReceive(netRx)
-                        .createdAt(createdAt)
-                        .restartCount(restartCount)
-                        .status(status)
-                        .nodeName(pod.getNodeName())
-                        .uid(pod.getUid())
-                        .build();
-            }).collect(Collectors.toList());
-
-            return fullList;
+        List<Map<String, String>> batches = new ArrayList<>();
+        byNamespace.forEach((namespace, names) -> {
+            for (String regex : podRegexChunks(names)) {
+                batches.add(podBatchQueries(namespace, regex));
+            }
         });
+
+        // 조각별 응답을 모두 받은 뒤 한 스레드에서 같은 테이블에 채움 (조각끼리는 파드가 겹치지 않음)
+        return Flux.fromIterable(batches)
+                .flatMap(this::fetchAll)
+                .collectList()
+                .map(responses -> {
+                    PodMetricTable table = new PodMetricTable();
+                    responses.forEach(raw -> fillPodTable(table, raw));
+                    return table.toPodDTOList();
+                });
+    }
+
+    private static Map<String, String> podBatchQueries(String namespace, String podRegex) {
+        String ns = escapeLabelValue(namespace);
+        return Map.of(
+                "info", String.format(PrometheusQueries.POD_BATCH_INFO, ns, podRegex),
+                "cpu", String.format(PrometheusQueries.POD_BATCH_CPU, ns, podRegex),
+                "memory", String.format(PrometheusQueries.POD_BATCH_MEMORY, ns, podRegex),
+                "netTx", String.format(PrometheusQueries.POD_BATCH_NETWORK_TRANSMIT, ns, podRegex),
+                "netRx", String.format(PrometheusQueries.POD_BATCH_NETWORK_RECEIVE, ns, podRegex),
+                "created", String.format(PrometheusQueries.POD_BATCH_CREATED, ns, podRegex),
+                "restarts", String.format(PrometheusQueries.POD_BATCH_RESTARTS, ns, podRegex),
+                "phase", String.format(PrometheusQueries.POD_BATCH_PHASE, ns, podRegex),
+                "crash", String.format(PrometheusQueries.POD_BATCH_CRASH, ns, podRegex)
+        );
+    }
+
+    // 파드 이름들을 "a|b|c" 정규식 조각으로 (조각마다 podBatchMaxRegexLength 이하, 이름 하나가 더 길면 단독 조각)
+    private List<String> podRegexChunks(Collection<String> names) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String name : names) {
+            String quoted = escapeRegex(name);
+            if (current.length() > 0 && current.length() + 1 + quoted.length() > podBatchMaxRegexLength) {
+                chunks.add(current.toString());
+                current.setLength(0);
+            }
+            if (current.length() > 0) {
+                current.append('|');
+            }
+            current.append(quoted);
+        }
+        if (current.length() > 0) {
+            chunks.add(current.toString());
+        }
+        return chunks;
+    }
+
+    // 정규식 메타 문자 이스케이프 (PromQL 문자열 안이므로 역슬래시는 두 번)
+    private static String escapeRegex(String name) {
+        StringBuilder sb = new StringBuilder(name.length() + 8);
+        for (char c : name.toCharArray()) {
+            if (c == '\\') {
+                sb.append("\\\\\\\\");
+                continue;
+            }
+            if (".+*?()|[]{}^$".indexOf(c) >= 0) {
+                sb.append("\\\\");
+            } else if (c == '"') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    // PromQL 문자열 라벨 값 이스케이프
+    private static String escapeLabelValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static InputStream body(Map<String, byte[]> raw, String key) {
+        return new ByteArrayInputStream(raw.getOrDefault(key, new byte[0]));
     }
 
     public Mono<ClusterMetricsDTO> getClusterMetrics() {
-        Map<String, String> queries = Map.ofEntries(
+        // 단일 값 쿼리
+        Map<String, String> singleQueries = Map.ofEntries(
                 Map.entry("nodeReadyCount", PrometheusQueries.NODE_READY_COUNT),
                 Map.entry("nodeCpuCapacity", PrometheusQueries.NODE_CPU_CAPACITY),
                 Map.entry("nodeMemoryCapacity", PrometheusQueries.NODE_MEMORY_CAPACITY),
                 Map.entry("nodeCpuAllocatable", PrometheusQueries.NODE_CPU_ALLOCATABLE),
                 Map.entry("nodeMemoryAllocatable", PrometheusQueries.NODE_MEMORY_ALLOCATABLE),
-                Map.entry("nodeCpuUsage", PrometheusQueries.NODE_CPU_USAGE),
-                Map.entry("nodeMemoryUsage", PrometheusQueries.NODE_MEMORY_USAGE),
                 Map.entry("podTotalCount", PrometheusQueries.POD_TOTAL_COUNT),
                 Map.entry("podRunningCount", PrometheusQueries.POD_RUNNING_COUNT),
                 Map.entry("podPendingCount", PrometheusQueries.POD_PENDING_COUNT),
-                Map.entry("podFailedCount", PrometheusQueries.POD_FAILED_COUNT),
-                Map.entry("volumeUsedBytes", PrometheusQueries.VOLUME_USED_BYTES),
-                Map.entry("volumeCapacityBytes", PrometheusQueries.VOLUME_CAPACITY_BYTES),
-                Map.entry("networkTransmit", PrometheusQueries.NETWORK_TRANSMIT),
-                Map.entry("networkReceive", PrometheusQueries.NETWORK_RECEIVE)
+                Map.entry("podFailedCount", PrometheusQueries.POD_FAILED_COUNT)
+        );
+        // 노드별 쿼리
+        Map<String, String> nodeQueries = Map.of(
+                "nodeCpuUsage", PrometheusQueries.NODE_CPU_USAGE,
+                "nodeMemoryUsage", PrometheusQueries.NODE_MEMORY_USAGE,
+                "networkTransmit", PrometheusQueries.NETWORK_TRANSMIT,
+                "networkReceive", PrometheusQueries.NETWORK_RECEIVE
+        );
+        // PVC 별 쿼리
+        Map<String, String> pvcQueries = Map.of(
+                "volumeUsedBytes", PrometheusQueries.VOLUME_USED_BYTES,
+                "volumeCapacityBytes", PrometheusQueries.VOLUME_CAPACITY_BYTES
         );
 
-        List<Mono<Map.Entry<String, String>>> queryMonos = queries.entrySet().stream()
-                .map(entry ->
-                        query(entry.getValue())
-                                .map(result -> Map.entry(entry.getKey(), result))
-                )
-                .collect(Collectors.toList());
-
-        return Mono.zip(queryMonos, results -> {
-            Map<String, String> rawResultMap = new LinkedHashMap<>();
-            for (Object obj : results) {
-                @SuppressWarnings("unchecked")
-                Map.Entry<String, String> entry = (Map.Entry<String, String>) obj;
-                rawResultMap.put(entry.getKey(), entry.getValue());
-            }
-
-            return convertToDto(rawResultMap);
-        });
+        return Mono.zip(
+                queryAll(singleQueries, PrometheusResultParser::extractSingleValueAsDouble),
+                queryAll(nodeQueries, PrometheusResultParser::extractNodeMetric),
+                queryAll(pvcQueries, PrometheusResultParser::extractPvcMetric)
+        ).map(tuple -> convertToDto(tuple.getT1(), tuple.getT2(), tuple.getT3()));
     }
 
-    private ClusterMetricsDTO convertToDto(Map<String, String> rawMap) {
-        ObjectMapper objectMapper = new ObjectMapper();
-
-        Map<String, Double> usedMap = PrometheusResultParser.extractPvcMetric(rawMap.get("volumeUsedBytes"), objectMapper);
-        Map<String, Double> capacityMap = PrometheusResultParser.extractPvcMetric(rawMap.get("volumeCapacityBytes"), objectMapper);
+    private ClusterMetricsDTO convertToDto(Map<String, Double> singles,
+                                           Map<String, Map<String, Double>> nodeMetrics,
+                                           Map<String, Map<String, Double>> pvcMetrics) {
+        Map<String, Double> usedMap = pvcMetrics.getOrDefault("volumeUsedBytes", Collections.emptyMap());
+        Map<String, Double> capacityMap = pvcMetrics.getOrDefault("volumeCapacityBytes", Collections.emptyMap());
 
         Map<String, Double> volumeUsagePercent = new LinkedHashMap<>();
         for (String pvc : usedMap.keySet()) {
@@ -180,64 +305,54 @@ public class PrometheusService {
         }
 
         return ClusterMetricsDTO.builder()
-                .nodeReadyCount(PrometheusResultParser.extractSingleValueAsLong(rawMap.get("nodeReadyCount"), objectMapper))
-                .nodeCpuCapacity(PrometheusResultParser.extractSingleValueAsDouble(rawMap.get("nodeCpuCapacity"), objectMapper))
-                .nodeCpuAllocatable(PrometheusResultParser.extractSingleValueAsDouble(rawMap.get("nodeCpuAllocatable"), objectMapper))
-                .nodeCpuUsage(PrometheusResultParser.extractNodeMetric(rawMap.get("nodeCpuUsage"), objectMapper))
-                .nodeMemoryCapacity(PrometheusResultParser.extractSingleValueAsDouble(rawMap.get("nodeMemoryCapacity"), objectMapper))
-                .nodeMemoryAllocatable(PrometheusResultParser.extractSingleValueAsDouble(rawMap.get("nodeMemoryAllocatable"), objectMapper))
-                .nodeMemoryUsage(PrometheusResultParser.extractNodeMetric(rawMap.get("nodeMemoryUsage"), objectMapper))
-                .podTotalCount(PrometheusResultParser.extractSingleValueAsLong(rawMap.get("podTotalCount"), objectMapper))
-                .podRunningCount(PrometheusResultParser.extractSingleValueAsLong(rawMap.get("podRunningCount"), objectMapper))
-                .podPendingCount(PrometheusResultParser.extractSingleValueAsLong(rawMap.get("podPendingCount"), objectMapper))
-                .podFailedCount(PrometheusResultParser.extractSingleValueAsLong(rawMap.get("podFailedCount"), objectMapper))
-                .networkTransmit(PrometheusResultParser.extractNodeMetric(rawMap.get("networkTransmit"), objectMapper))
-                .networkReceive(PrometheusResultParser.extractNodeMetric(rawMap.get("networkReceive"), objectMapper))
+                .nodeReadyCount(singles.getOrDefault("nodeReadyCount", 0.0).longValue())
+                .nodeCpuCapacity(singles.getOrDefault("nodeCpuCapacity", 0.0))
+                .nodeCpuAllocatable(singles.getOrDefault("nodeCpuAllocatable", 0.0))
+                .nodeCpuUsage(nodeMetrics.getOrDefault("nodeCpuUsage", Collections.emptyMap()))
+                .nodeMemoryCapacity(singles.getOrDefault("nodeMemoryCapacity", 0.0))
+                .nodeMemoryAllocatable(singles.getOrDefault("nodeMemoryAllocatable", 0.0))
+                .nodeMemoryUsage(nodeMetrics.getOrDefault("nodeMemoryUsage", Collections.emptyMap()))
+                .podTotalCount(singles.getOrDefault("podTotalCount", 0.0).longValue())
+                .podRunningCount(singles.getOrDefault("podRunningCount", 0.0).longValue())
+                .podPendingCount(singles.getOrDefault("podPendingCount", 0.0).longValue())
+                .podFailedCount(singles.getOrDefault("podFailedCount", 0.0).longValue())
+                .networkTransmit(nodeMetrics.getOrDefault("networkTransmit", Collections.emptyMap()))
+                .networkReceive(nodeMetrics.getOrDefault("networkReceive", Collections.emptyMap()))
                 .volumeUsagePercent(volumeUsagePercent)
                 .build();
     }
 
     public Mono<List<PodDTO>> getPodList() {
-        ObjectMapper objectMapper = new ObjectMapper();
-
-        return query(PrometheusQueries.POD_LIST)
-                .map(json -> PrometheusResultParser.extractPodDTOList(json, objectMapper));
+        return query(PrometheusQueries.POD_LIST, in -> PrometheusResultParser.extractPodDTOList(in, objectMapper));
     }
 
     public Mono<PodDTO> getPodInfo(String podName, String namespace) {
-        ObjectMapper objectMapper = new ObjectMapper();
-
         // PromQL 쿼리 정의
         Map<String, String> queries = Map.of(
                 "cpu", String.format(PrometheusQueries.POD_CPU_USAGE, podName, namespace),
                 "memory", String.format(PrometheusQueries.POD_MEMORY_USAGE, podName, namespace),
                 "net_rx", String.format(PrometheusQueries.POD_NETWORK_TRANSMIT, podName, namespace),
                 "net_tx", String.format(PrometheusQueries.POD_NETWORK_RECEIVE, podName, namespace),
-                "podInfo", String.format(PrometheusQueries.POD_INFO, podName, namespace),
                 "created", String.format(PrometheusQueries.POD_CREATED, podName, namespace),
                 "runningStatus", String.format(PrometheusQueries.POD_STATUS_RUNNING, podName, namespace),
                 "restartCount", String.format(PrometheusQueries.POD_RESTART_COUNT, podName, namespace)
         );
 
-        List<Mono<Map.Entry<String, String>>> queryMonos = queries.entrySet().stream()
-                .map(entry -> query(entry.getValue())
-                        .map(result -> Map.entry(entry.getKey(), result)))
-                .collect(Collectors.toList());
-
-        return Mono.zip(queryMonos, results -> {
-            Map<String, String> rawResultMap = new LinkedHashMap<>();
-            for (Object obj : results) {
-                @SuppressWarnings("unchecked")
-                Map.Entry<String, String> entry = (Map.Entry<String, String>) obj;
-                rawResultMap.put(entry.getKey(), entry.getValue());
-            }
+        Mono<Map<String, Double>> valuesMono =
+                queryAll(queries, PrometheusResultParser::extractSingleValueAsDouble);
+        Mono<Map<String, Map<String, String>>> podInfoMono =
+                query(String.format(PrometheusQueries.POD_INFO, podName, namespace),
+                        in -> PrometheusResultParser.extractLabels(in, objectMapper));
+
+        return Mono.zip(valuesMono, podInfoMono).map(tuple -> {
+            Map<String, Double> values = tuple.getT1();
 
-            double cpu = PrometheusResultParser.extractSingleValueAsDouble(rawResultMap.get("cpu"), objectMapper);
-            double memory = PrometheusResultParser.extractSingleValueAsDouble(rawResultMap.get("memory"), objectMapper);
-            double netRx = PrometheusResultParser.extractSingleValueAsDouble(rawResultMap.get("net_rx"), objectMapper);
-            double netTx = PrometheusResultParser.extractSingleValueAsDouble(rawResultMap.get("net_tx"), objectMapper);
+            double cpu = values.getOrDefault("cpu", 0.0);
+            double memory = values.getOrDefault("memory", 0.0);
+            double netRx = values.getOrDefault("net_rx", 0.0);
+            double netTx = values.getOrDefault("net_tx", 0.0);
 
-            Map<String, Map<String, String>> podInfoLabels = PrometheusResultParser.extractLabels(rawResultMap.get("podInfo"), objectMapper);
+            Map<String, Map<String, String>> podInfoLabels = tuple.getT2();
             String nodeName = null;
             String uid = null;
             if (!podInfoLabels.isEmpty()) {
@@ -246,14 +361,13 @@ public class PrometheusService {
                 uid = labels.get("uid");
             }
 
-            Double createdEpoch = PrometheusResultParser.extractSingleValueAsDouble(rawResultMap.get("created"), objectMapper);
-            String createdAt = createdEpoch != null ? Instant.ofEpochSecond(createdEpoch.longValue()).toString() : null;
+            Double createdEpoch = values.getOrDefault("created", 0.0);
+            String createdAt = Instant.ofEpochSecond(createdEpoch.longValue()).toString();
 
-            Double runningVal = PrometheusResultParser.extractSingleValueAsDouble(rawResultMap.get("runningStatus"), objectMapper);
-            String status = (runningVal != null && runningVal > 0) ? "Running" : "Not Running";
+            Double runningVal = values.getOrDefault("runningStatus", 0.0);
+            String status = runningVal > 0 ? "Running" : "Not Running";
 
-            Long restartCount = PrometheusResultParser.extractSingleValueAsLong(rawResultMap.get("restartCount"), objectMapper);
-            restartCount = restartCount != null ? restartCount : 0L;
+            long restartCount = values.getOrDefault("restartCount", 0.0).longValue();
 
             return PodDTO.builder()
                     .podName(podName)
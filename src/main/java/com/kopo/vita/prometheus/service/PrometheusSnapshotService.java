@@ -0,0 +1,110 @@
+package com.kopo.vita.prometheus.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kopo.vita.common.util.ETags;
+import com.kopo.vita.prometheus.dto.ClusterMetricsDTO;
+import com.kopo.vita.prometheus.dto.PodDTO;
+import com.kopo.vita.prometheus.dto.SnapshotDTO;
+import com.kopo.vita.prometheus.util.PodIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 파드 상세 목록 / 클러스터 요약을 고정 주기로 미리 조회해 두는 스냅샷 엔진.
+ * 컨트롤러는 Prometheus 를 직접 호출하지 않고 마지막 스냅샷을 그대로 반환한다.
+ * 갱신할 때 내용 해시(ETag)도 한 번 계산해 두어 조건부 GET 을 요청마다 직렬화하지 않고 판단할 수 있게 한다.
+ */
+@Service
+@Slf4j
+public class PrometheusSnapshotService {
+
+    private final PrometheusService prometheusService;
+    private final PodStatePushService pushService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration refreshTimeout;
+
+    private volatile SnapshotDTO<List<PodDTO>> podSnapshot;
+    // 같은 파드 목록으로 만든 조회 인덱스 (필터 / 페이지 조회용)
+    private volatile SnapshotDTO<PodIndex> podIndexSnapshot;
+    private volatile SnapshotDTO<ClusterMetricsDTO> clusterSnapshot;
+
+    public PrometheusSnapshotService(PrometheusService prometheusService,
+                                     PodStatePushService pushService,
+                                     ObjectMapper objectMapper,
+                                     @Value("${prometheus.snapshot.enabled:true}") boolean enabled,
+                                     @Value("${prometheus.snapshot.refresh-timeout:30000}") long refreshTimeoutMs) {
+        this.prometheusService = prometheusService;
+        this.pushService = pushService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.refreshTimeout = Duration.ofMillis(refreshTimeoutMs);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${prometheus.snapshot.refresh-interval:10000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        List<PodDTO> pods = refreshPods();
+        ClusterMetricsDTO cluster = refreshCluster();
+        // 변경분은 갱신마다 한 번만 계산해서 모든 구독자에게 전달
+        if (pods != null || cluster != null) {
+            pushService.publish(pods, cluster);
+        }
+    }
+
+    // 갱신된 파드 목록 (실패 시 null)
+    private List<PodDTO> refreshPods() {
+        try {
+            List<PodDTO> pods = prometheusService.getPodFullList().block(refreshTimeout);
+            if (pods != null) {
+                Instant now = Instant.now();
+                List<PodDTO> copy = List.copyOf(pods);
+                String etag = ETags.of(objectMapper, copy);
+                podIndexSnapshot = new SnapshotDTO<>(new PodIndex(copy), now, etag);
+                podSnapshot = new SnapshotDTO<>(copy, now, etag);
+                return copy;
+            }
+        } catch (Exception e) {
+            // 실패 시 이전 스냅샷 유지
+            log.warn("pod snapshot refresh failed: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    // 갱신된 클러스터 요약 (실패 시 null)
+    private ClusterMetricsDTO refreshCluster() {
+        try {
+            ClusterMetricsDTO cluster = prometheusService.getClusterMetrics().block(refreshTimeout);
+            if (cluster != null) {
+                clusterSnapshot = new SnapshotDTO<>(cluster, Instant.now(), ETags.of(objectMapper, cluster));
+                return cluster;
+            }
+        } catch (Exception e) {
+            log.warn("cluster snapshot refresh failed: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /** 최신 파드 스냅샷 (아직 한 번도 갱신되지 않았으면 null) */
+    public SnapshotDTO<List<PodDTO>> getPodSnapshot() {
+        return podSnapshot;
+    }
+
+    /** 최신 파드 스냅샷의 조회 인덱스 (ETag 는 파드 스냅샷과 같음, 아직 한 번도 갱신되지 않았으면 null) */
+    public SnapshotDTO<PodIndex> getPodIndexSnapshot() {
+        return podIndexSnapshot;
+    }
+
+    /** 최신 클러스터 요약 스냅샷 (아직 한 번도 갱신되지 않았으면 null) */
+    public SnapshotDTO<ClusterMetricsDTO> getClusterSnapshot() {
+        return clusterSnapshot;
+    }
+}
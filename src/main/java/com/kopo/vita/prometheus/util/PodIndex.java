@@ -0,0 +1,260 @@
+package com.kopo.vita.prometheus.util;
+
+import com.kopo.vita.prometheus.dto.PodDTO;
+import com.kopo.vita.prometheus.dto.PodPageDTO;
+import com.kopo.vita.prometheus.dto.PodQueryDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 파드 상세 목록 조회용 인덱스 (스냅샷마다 한 번 만들고 이후 읽기 전용).
+ * 파드를 (namespace, podName) 순으로 정렬해 위치 번호를 매기고,
+ * namespace / node / status 별 위치 목록, 이름순 위치, 지표별 정렬 순서를 미리 만들어 둔다.
+ * 필터가 있으면 가장 작은 위치 목록만 훑으므로 페이지 비용은 클러스터 크기가 아니라 후보 수에 비례한다.
+ * 지표 정렬과 필터를 함께 쓰면 정렬 순서를 커서 다음부터 훑으며 조건에 맞는 것만 담는다.
+ */
+public class PodIndex {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private static final int[] EMPTY = new int[0];
+
+    private static final Map<String, ToDoubleFunction<PodDTO>> SORT_METRICS = Map.of(
+            "cpu", PodDTO::getCpu,
+            "memory", PodDTO::getMemory,
+            "networkReceive", PodDTO::getNetworkReceive,
+            "networkTransmit", PodDTO::getNetworkTransmit,
+            "restartCount", PodDTO::getRestartCount
+    );
+
+    private final PodDTO[] pods;
+    // 위치 목록은 모두 오름차순 (= namespace, podName 순)
+    private final Map<String, int[]> byNamespace;
+    private final Map<String, int[]> byNode;
+    private final Map<String, int[]> byStatus;
+    // podName 순 위치 (접두어 검색용)
+    private final int[] byName;
+    // 지표 이름 → 정렬 순서 (값이 같으면 위치 순)
+    private final Map<String, int[]> descending = new HashMap<>();
+    private final Map<String, int[]> ascending = new HashMap<>();
+
+    public PodIndex(List<PodDTO> list) {
+        this.pods = list.toArray(new PodDTO[0]);
+        Arrays.sort(pods, Comparator.comparing(PodDTO::getNameSpace, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(PodDTO::getPodName, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        this.byNamespace = group(PodDTO::getNameSpace);
+        this.byNode = group(PodDTO::getNodeName);
+        this.byStatus = group(p -> p.getStatus() != null ? p.getStatus().toLowerCase(Locale.ROOT) : null);
+        this.byName = sortedPositions((a, b) -> {
+            int c = compareNullable(pods[a].getPodName(), pods[b].getPodName());
+            return c != 0 ? c : Integer.compare(a, b);
+        });
+        SORT_METRICS.forEach((name, metric) -> {
+            descending.put(name, sortedPositions(metricOrder(metric, true)));
+            ascending.put(name, sortedPositions(metricOrder(metric, false)));
+        });
+    }
+
+    public int size() {
+        return pods.length;
+    }
+
+    /**
+     * 조건에 맞는 한 페이지.
+     * @throws IllegalArgumentException 알 수 없는 sort 이름이거나 cursor 형식이 잘못된 경우
+     */
+    public PodPageDTO query(PodQueryDTO q) {
+        int limit = q.getLimit() == null ? DEFAULT_LIMIT : Math.max(1, Math.min(MAX_LIMIT, q.getLimit()));
+        ToDoubleFunction<PodDTO> metric = null;
+        if (q.getSort() != null) {
+            metric = SORT_METRICS.get(q.getSort());
+            if (metric == null) {
+                throw new IllegalArgumentException("unknown sort: " + q.getSort() + " (allowed: " + SORT_METRICS.keySet() + ")");
+            }
+        }
+        boolean desc = !"asc".equalsIgnoreCase(q.getOrder());
+
+        // 인덱스가 있는 조건마다 후보 위치 목록
+        List<int[]> candidates = new ArrayList<>();
+        if (q.getNamespace() != null) {
+            candidates.add(byNamespace.getOrDefault(q.getNamespace(), EMPTY));
+        }
+        if (q.getNode() != null) {
+            candidates.add(byNode.getOrDefault(q.getNode(), EMPTY));
+        }
+        if (q.getStatus() != null) {
+            candidates.add(byStatus.getOrDefault(q.getStatus().toLowerCase(Locale.ROOT), EMPTY));
+        }
+        if (q.getNamePrefix() != null) {
+            candidates.add(prefixPositions(q.getNamePrefix()));
+        }
+        IntPredicate matches = pos -> matches(pods[pos], q);
+
+        // 훑을 순서: 지표 정렬이면 미리 정렬해 둔 순서를 필터하며 훑고 (요청마다 정렬하지 않음),
+        // 아니면 가장 작은 후보 목록, 필터도 없으면 전체
+        int[] view;
+        if (metric != null) {
+            view = (desc ? descending : ascending).get(q.getSort());
+        } else if (!candidates.isEmpty()) {
+            view = candidates.stream().min(Comparator.comparingInt(a -> a.length)).orElse(EMPTY);
+        } else {
+            view = null;
+        }
+
+        Cursor after = q.getCursor() != null ? Cursor.decode(q.getCursor()) : null;
+        int length = view != null ? view.length : pods.length;
+        int start = after != null ? firstAfter(view, length, after, metric, desc) : 0;
+
+        List<PodDTO> items = new ArrayList<>(Math.min(limit, length - start));
+        int last = -1;
+        int i = start;
+        for (; i < length && items.size() < limit; i++) {
+            int pos = view != null ? view[i] : i;
+            if (!candidates.isEmpty() && !matches.test(pos)) {
+                continue;
+            }
+            items.add(pods[pos]);
+            last = pos;
+        }
+        // 남은 후보 중 조건에 맞는 것이 있을 때만 다음 커서
+        boolean more = false;
+        for (; i < length && !more; i++) {
+            int pos = view != null ? view[i] : i;
+            more = candidates.isEmpty() || matches.test(pos);
+        }
+        String next = more && last >= 0 ? Cursor.of(pods[last], metric).encode() : null;
+        return PodPageDTO.builder().items(items).nextCursor(next).build();
+    }
+
+    private static boolean matches(PodDTO pod, PodQueryDTO q) {
+        return (q.getNamespace() == null || q.getNamespace().equals(pod.getNameSpace()))
+                && (q.getNode() == null || q.getNode().equals(pod.getNodeName()))
+                && (q.getStatus() == null || q.getStatus().equalsIgnoreCase(pod.getStatus()))
+                && (q.getNamePrefix() == null || (pod.getPodName() != null && pod.getPodName().startsWith(q.getNamePrefix())));
+    }
+
+    // 이름이 prefix 로 시작하는 파드 위치 (오름차순)
+    private int[] prefixPositions(String prefix) {
+        int lo = 0;
+        int hi = byName.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareNullable(pods[byName[mid]].getPodName(), prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        int end = lo;
+        while (end < byName.length && pods[byName[end]].getPodName() != null
+                && pods[byName[end]].getPodName().startsWith(prefix)) {
+            end++;
+        }
+        int[] result = Arrays.copyOfRange(byName, lo, end);
+        Arrays.sort(result);
+        return result;
+    }
+
+    // view 에서 커서 다음 첫 위치 (view 는 같은 순서로 정렬돼 있어야 함, null 이면 기본 순서 전체)
+    private int firstAfter(int[] view, int length, Cursor cursor, ToDoubleFunction<PodDTO> metric, boolean desc) {
+        int lo = 0;
+        int hi = length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int pos = view != null ? view[mid] : mid;
+            if (cursor.compareTo(pods[pos], metric, desc) >= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // 지표 순 (값이 같으면 위치 순 = namespace, podName 순)
+    private Comparator<Integer> metricOrder(ToDoubleFunction<PodDTO> metric, boolean desc) {
+        return (a, b) -> {
+            int c = Double.compare(metric.applyAsDouble(pods[a]), metric.applyAsDouble(pods[b]));
+            if (desc) {
+                c = -c;
+            }
+            return c != 0 ? c : Integer.compare(a, b);
+        };
+    }
+
+    private int[] sortedPositions(Comparator<Integer> order) {
+        Integer[] positions = new Integer[pods.length];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i;
+        }
+        Arrays.sort(positions, order);
+        return Arrays.stream(positions).mapToInt(Integer::intValue).toArray();
+    }
+
+    private Map<String, int[]> group(Function<PodDTO, String> key) {
+        Map<String, List<Integer>> groups = new HashMap<>();
+        for (int i = 0; i < pods.length; i++) {
+            String k = key.apply(pods[i]);
+            if (k != null) {
+                groups.computeIfAbsent(k, x -> new ArrayList<>()).add(i);
+            }
+        }
+        Map<String, int[]> result = new HashMap<>();
+        groups.forEach((k, positions) -> result.put(k, positions.stream().mapToInt(Integer::intValue).toArray()));
+        return result;
+    }
+
+    private static int compareNullable(String a, String b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return a.compareTo(b);
+    }
+
+    /**
+     * 페이지 커서: 마지막으로 반환한 파드의 정렬 키 (namespace, podName, 지표 값).
+     * 위치 번호가 아니라 키를 담으므로 스냅샷이 바뀌어도 이어서 조회할 수 있다.
+     */
+    private record Cursor(String namespace, String pod, double value) {
+
+        static Cursor of(PodDTO pod, ToDoubleFunction<PodDTO> metric) {
+            return new Cursor(pod.getNameSpace(), pod.getPodName(), metric != null ? metric.applyAsDouble(pod) : 0);
+        }
+
+        String encode() {
+            String raw = value + "\n" + Objects.toString(namespace, "") + "\n" + Objects.toString(pod, "");
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\n", 3);
+                return new Cursor(parts[1], parts[2], Double.parseDouble(parts[0]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("invalid cursor");
+            }
+        }
+
+        // 커서 키와 파드 키 비교 (음수면 커서가 앞)
+        int compareTo(PodDTO other, ToDoubleFunction<PodDTO> metric, boolean desc) {
+            if (metric != null) {
+                int c = Double.compare(value, metric.applyAsDouble(other));
+                if (desc) {
+                    c = -c;
+                }
+                if (c != 0) {
+                    return c;
+                }
+            }
+            int c = compareNullable(namespace, other.getNameSpace());
+            return c != 0 ? c : compareNullable(pod, other.getPodName());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.kopo.vita.prometheus.util;
+
+import com.kopo.vita.prometheus.dto.PodDTO;
+import com.kopo.vita.prometheus.dto.PodKey;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * 파드 상세 목록 조인용 컬럼 테이블.
+ * (namespace, pod) 를 int 행 번호로 한 번만 매핑하고, 지표는 double[] 컬럼, phase 는 byte[] 컬럼에 저장한다.
+ * 조인은 행 번호로 배열을 읽는 것으로 끝난다. (단일 스레드에서만 사용)
+ */
+public class PodMetricTable {
+
+    // double 컬럼 인덱스
+    public static final int CPU = 0;
+    public static final int MEMORY = 1;
+    public static final int NET_TX = 2;
+    public static final int NET_RX = 3;
+    public static final int CREATED = 4;
+    public static final int RESTARTS = 5;
+    public static final int CRASH = 6;
+    private static final int COLUMNS = 7;
+
+    // phase 코드 (값이 클수록 우선) → 상태 문자열
+    private static final byte PHASE_UNKNOWN = 0;
+    private static final String[] PHASE_NAMES = {"Unknown", "Running", "Succeeded", "Pending", "Failed"};
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final Map<PodKey, Integer> index = new HashMap<>();
+    private final Map<String, String> namespaces = new HashMap<>();
+
+    private final double[][] columns = new double[COLUMNS][];
+    private byte[] phases;
+    private PodDTO[] infos;
+    private int size;
+
+    public PodMetricTable() {
+        for (int c = 0; c < COLUMNS; c++) {
+            columns[c] = new double[INITIAL_CAPACITY];
+        }
+        Arrays.fill(columns[CREATED], Double.NaN);
+        phases = new byte[INITIAL_CAPACITY];
+        infos = new PodDTO[INITIAL_CAPACITY];
+    }
+
+    /** 행 번호 조회 (없으면 -1) */
+    public int find(String namespace, String pod) {
+        Integer row = index.get(new PodKey(namespace, pod));
+        return row != null ? row : -1;
+    }
+
+    /** 행 번호 조회, 없으면 새 행 추가 */
+    public int rowOf(String namespace, String pod) {
+        PodKey key = new PodKey(namespaces.computeIfAbsent(namespace, ns -> ns), pod);
+        Integer row = index.get(key);
+        if (row != null) {
+            return row;
+        }
+        ensureCapacity(size + 1);
+        index.put(key, size);
+        return size++;
+    }
+
+    public void set(int column, int row, double value) {
+        columns[column][row] = value;
+    }
+
+    public double get(int column, int row) {
+        return columns[column][row];
+    }
+
+    /** kube_pod_info 로 얻은 기본 정보 (같은 파드가 여러 번 오면 처음 값 유지) */
+    public void putInfo(int row, PodDTO info) {
+        if (infos[row] == null) {
+            infos[row] = info;
+        }
+    }
+
+    /** 값이 0 보다 큰 phase 중 우선순위가 가장 높은 것만 유지 */
+    public void markPhase(int row, String phase, double value) {
+        if (value <= 0) {
+            return;
+        }
+        byte code = phaseCode(phase);
+        if (code > phases[row]) {
+            phases[row] = code;
+        }
+    }
+
+    /** CrashLoopBackOff > Failed > Pending > Succeeded > Running > Unknown */
+    public String status(int row) {
+        if (columns[CRASH][row] > 0) {
+            return "CrashLoopBackOff";
+        }
+        return PHASE_NAMES[phases[row]];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** kube_pod_info 가 있는 행만 행 순서대로 PodDTO 로 변환 */
+    public List<PodDTO> toPodDTOList() {
+        List<PodDTO> list = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            PodDTO pod = toPodDTO(row);
+            if (pod != null) {
+                list.add(pod);
+            }
+        }
+        return list;
+    }
+
+    /** 행 하나를 PodDTO 로 변환 (kube_pod_info 가 없는 행이면 null) */
+    public PodDTO toPodDTO(int row) {
+        PodDTO info = infos[row];
+        if (info == null) {
+            return null;
+        }
+        double created = columns[CREATED][row];
+        return PodDTO.builder()
+                .podName(info.getPodName())
+                .podId(info.getPodId())
+                .nameSpace(info.getNameSpace())
+                .cpu(columns[CPU][row])
+                .memory(columns[MEMORY][row] / 1024 / 1024)
+                .networkTransmit(columns[NET_TX][row])
+                .networkReceive(columns[NET_RX][row])
+                .createdAt(Double.isNaN(created) ? null : Instant.ofEpochSecond((long) created).toString())
+                .restartCount((long) columns[RESTARTS][row])
+                .status(status(row))
+                .nodeName(info.getNodeName())
+                .uid(info.getUid())
+                .build();
+    }
+
+    private void ensureCapacity(int required) {
+        int capacity = phases.length;
+        if (required <= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(required, capacity * 2);
+        for (int c = 0; c < COLUMNS; c++) {
+            columns[c] = Arrays.copyOf(columns[c], newCapacity);
+        }
+        Arrays.fill(columns[CREATED], capacity, newCapacity, Double.NaN);
+        phases = Arrays.copyOf(phases, newCapacity);
+        infos = Arrays.copyOf(infos, newCapacity);
+    }
+
+    private static byte phaseCode(String phase) {
+        if (phase == null) {
+            return PHASE_UNKNOWN;
+        }
+        return switch (phase) {
+            case "Running" -> 1;
+            case "Succeeded" -> 2;
+            case "Pending" -> 3;
+            case "Failed" -> 4;
+            default -> PHASE_UNKNOWN;
+        };
+    }
+}
@@ -1,165 +1,324 @@
 package com.kopo.vita.prometheus.util;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kopo.vita.prometheus.dto.PodDTO;
+import com.kopo.vita.prometheus.query.PrometheusQueries;
 import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.*;
 
+/**
+ * Prometheus HTTP API 응답(vector / matrix) 파서.
+ * JsonNode 트리를 만들지 않고 토큰 단위로 data.result 배열만 읽어 샘플을 바로 넘겨준다.
+ * 응답이 깨져 있으면 0 으로 채우지 않고 UncheckedIOException 으로 호출한 쪽에 실패를 알린다.
+ */
 @UtilityClass
+@Slf4j
 public class PrometheusResultParser {
 
-    public Map<String, Double> extractPvcMetric(String json, ObjectMapper mapper) {
-        Map<String, Double> result = new LinkedHashMap<>();
-        try {
-            JsonNode items = mapper.readTree(json).path("data").path("result");
-            for (JsonNode item : items) {
-                String pvc = item.path("metric").path("persistentvolumeclaim").asText();
-                double value = item.path("value").get(1).asDouble();
-                result.put(pvc, value);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return result;
+    // 단일 쿼리 모드: METRIC_TAG_LABEL 값 → PodMetricTable 컬럼
+    private static final Map<String, Integer> TAGGED_COLUMNS = Map.of(
+            "cpu", PodMetricTable.CPU,
+            "memory", PodMetricTable.MEMORY,
+            "netTx", PodMetricTable.NET_TX,
+            "netRx", PodMetricTable.NET_RX,
+            "created", PodMetricTable.CREATED,
+            "restarts", PodMetricTable.RESTARTS,
+            "crash", PodMetricTable.CRASH
+    );
+
+    /**
+     * data.result 의 각 샘플마다 호출되는 콜백 (vector 는 시리즈당 1회, matrix 는 포인트마다)
+     */
+    @FunctionalInterface
+    public interface SampleHandler {
+        void accept(Map<String, String> labels, double timestamp, double value);
     }
 
-    public Map<String, Double> extractNodeMetric(String json, ObjectMapper mapper) {
-        Map<String, Double> result = new LinkedHashMap<>();
-        try {
-            JsonNode items = mapper.readTree(json).path("data").path("result");
-            for (JsonNode item : items) {
-                String node = item.path("metric").path("node").asText();
-                double value = item.path("value").get(1).asDouble();
-                result.put(node, value);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return result;
+    /**
+     * data.result 의 시리즈마다 호출되는 콜백. samples 는 [ts0, v0, ts1, v1, ...] 순서이며 size 까지만 유효
+     * (samples 배열은 호출이 끝나면 재사용될 수 있으므로 필요하면 복사해서 보관)
+     */
+    @FunctionalInterface
+    public interface SeriesHandler {
+        void accept(Map<String, String> labels, double[] samples, int size);
     }
 
-    public long extractSingleValueAsLong(String json, ObjectMapper mapper) {
-        try {
-            JsonNode root = mapper.readTree(json);
-            JsonNode resultArray = root.path("data").path("result");
+    /**
+     * 응답 스트림에서 data.result 를 읽어 샘플을 handler 로 전달
+     */
+    public void readSamples(InputStream in, ObjectMapper mapper, SampleHandler handler) throws IOException {
+        readSeries(in, mapper, (labels, samples, size) -> {
+            for (int i = 0; i < size; i += 2) {
+                handler.accept(labels, samples[i], samples[i + 1]);
+            }
+        });
+    }
 
-            if (resultArray.isArray() && resultArray.size() > 0) {
-                JsonNode valueNode = resultArray.get(0).path("value");
+    /**
+     * 응답 스트림에서 data.result 를 읽어 시리즈 단위로 handler 로 전달
+     */
+    public void readSeries(InputStream in, ObjectMapper mapper, SeriesHandler handler) throws IOException {
+        try (JsonParser p = mapper.createParser(in)) {
+            if (!moveToResult(p) || p.currentToken() != JsonToken.START_ARRAY) {
+                return;
+            }
+            while (p.nextToken() == JsonToken.START_OBJECT) {
+                readSeries(p, handler);
+            }
+        }
+    }
 
-                if (valueNode.isArray() && valueNode.size() == 2) {
-                    String valueStr = valueNode.get(1).asText();
-                    return Long.parseLong(valueStr);
+    // root → data → result 위치까지 이동 (result 값 토큰에 멈춤)
+    private boolean moveToResult(JsonParser p) throws IOException {
+        if (p.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            if (!"data".equals(field) || p.currentToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                continue;
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String dataField = p.currentName();
+                p.nextToken();
+                if ("result".equals(dataField)) {
+                    return true;
                 }
+                p.skipChildren();
             }
+        }
+        return false;
+    }
+
+    // result 배열의 시리즈 객체 하나를 읽음 (metric 필드가 value 뒤에 오더라도 처리)
+    private void readSeries(JsonParser p, SeriesHandler handler) throws IOException {
+        Map<String, String> labels = Collections.emptyMap();
+        double[] samples = new double[2];
+        int size = 0;
 
-        } catch (Exception e) {
-            System.err.println("[extractSingleValueAsLong] Error while parsing JSON: " + e.getMessage());
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "metric" -> labels = readLabels(p);
+                case "value" -> {
+                    samples = ensureCapacity(samples, size + 2);
+                    size = readPair(p, samples, size);
+                }
+                case "values" -> {
+                    while (p.nextToken() == JsonToken.START_ARRAY) {
+                        samples = ensureCapacity(samples, size + 2);
+                        size = readPair(p, samples, size);
+                    }
+                }
+                default -> p.skipChildren();
+            }
         }
 
-        return 0;
+        handler.accept(labels, samples, size);
     }
 
-    public double extractSingleValueAsDouble(String json, ObjectMapper mapper) {
-        try {
-            JsonNode items = mapper.readTree(json).path("data").path("result");
-            if (items.isArray() && items.size() > 0) {
-                return items.get(0).path("value").get(1).asDouble();
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+    private Map<String, String> readLabels(JsonParser p) throws IOException {
+        Map<String, String> labels = new LinkedHashMap<>();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            p.nextToken();
+            labels.put(name, p.getText());
         }
-        return 0.0;
+        return labels;
     }
 
-    public List<PodDTO> extractPodDTOList(String json, ObjectMapper mapper) {
-        List<PodDTO> podList = new ArrayList<>();
-        try {
-            JsonNode items = mapper.readTree(json).path("data").path("result");
-            for (JsonNode item : items) {
-                JsonNode metric = item.path("metric");
-
-                String podName = metric.path("pod").asText(null);
-                String podId = metric.path("uid").asText(null);
-                String nameSpace = metric.path("namespace").asText(null);
-
-                if (podName != null && !podName.isEmpty()
-                        && podId != null && !podId.isEmpty()
-                        && nameSpace != null && !nameSpace.isEmpty()) {
-                    podList.add(PodDTO.builder()
-                            .podName(podName)
-                            .podId(podId)
-                            .nameSpace(nameSpace)
-                            .build());
+    // [ <unix ts>, "<value>" ] 한 쌍을 읽어 samples 에 추가
+    private int readPair(JsonParser p, double[] samples, int size) throws IOException {
+        p.nextToken();
+        samples[size] = p.getValueAsDouble();
+        p.nextToken();
+        samples[size + 1] = parseValue(p.getText());
+        // 닫는 괄호까지 소비
+        JsonToken t;
+        while ((t = p.nextToken()) != null && t != JsonToken.END_ARRAY) {
+            p.skipChildren();
+        }
+        return size + 2;
+    }
+
+    private double[] ensureCapacity(double[] samples, int required) {
+        return required <= samples.length ? samples : Arrays.copyOf(samples, Math.max(required, samples.length * 2));
+    }
+
+    // Prometheus 는 값을 문자열로 내려주며 "NaN", "+Inf", "-Inf" 를 사용 (읽을 수 없는 값은 NaN = 값 없음)
+    public double parseValue(String text) {
+        if (text == null) {
+            return Double.NaN;
+        }
+        return switch (text) {
+            case "NaN" -> Double.NaN;
+            case "+Inf" -> Double.POSITIVE_INFINITY;
+            case "-Inf" -> Double.NEGATIVE_INFINITY;
+            default -> {
+                try {
+                    yield Double.parseDouble(text);
+                } catch (NumberFormatException e) {
+                    log.debug("unparseable prometheus sample value: {}", text);
+                    yield Double.NaN;
                 }
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return podList;
+        };
     }
 
-    public static Map<String, Map<String, String>> extractLabels(String json, ObjectMapper objectMapper) {
-        Map<String, Map<String, String>> result = new LinkedHashMap<>();
+    public Map<String, Double> extractPvcMetric(InputStream json, ObjectMapper mapper) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        read("pvc metric", json, mapper, (labels, ts, value) ->
+                result.put(labels.getOrDefault("persistentvolumeclaim", ""), value));
+        return result;
+    }
 
-        try {
-            JsonNode root = objectMapper.readTree(json);
-            JsonNode data = root.path("data").path("result");
+    public Map<String, Double> extractNodeMetric(InputStream json, ObjectMapper mapper) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        read("node metric", json, mapper, (labels, ts, value) ->
+                result.put(labels.getOrDefault("node", ""), value));
+        return result;
+    }
+
+    // 첫 샘플 값 (결과가 비어 있으면 0)
+    public long extractSingleValueAsLong(InputStream json, ObjectMapper mapper) {
+        double[] first = {Double.NaN};
+        read("single value", json, mapper, (labels, ts, value) -> {
+            if (Double.isNaN(first[0])) {
+                first[0] = value;
+            }
+        });
+        return Double.isNaN(first[0]) ? 0 : (long) first[0];
+    }
 
-            for (JsonNode item : data) {
-                JsonNode metricNode = item.path("metric");
-                Map<String, String> labels = new LinkedHashMap<>();
-                metricNode.fieldNames().forEachRemaining(field -> {
-                    labels.put(field, metricNode.path(field).asText());
-                });
+    // 첫 샘플 값 (결과가 비어 있으면 0)
+    public double extractSingleValueAsDouble(InputStream json, ObjectMapper mapper) {
+        boolean[] found = {false};
+        double[] first = {0.0};
+        read("single value", json, mapper, (labels, ts, value) -> {
+            if (!found[0]) {
+                found[0] = true;
+                first[0] = value;
+            }
+        });
+        return first[0];
+    }
 
-                // 키는 pod 이름 또는 pod+namespace 조합 등, 상황에 맞게 선택
-                String key = labels.getOrDefault("pod", UUID.randomUUID().toString());
-                result.put(key, labels);
+    public List<PodDTO> extractPodDTOList(InputStream json, ObjectMapper mapper) {
+        List<PodDTO> podList = new ArrayList<>();
+        read("pod list", json, mapper, (labels, ts, value) -> {
+            PodDTO info = toPodInfo(labels);
+            if (info != null) {
+                podList.add(info);
             }
+        });
+        return podList;
+    }
+
+    // kube_pod_info 라벨 → 기본 파드 정보 (필수 라벨이 없으면 null)
+    public PodDTO toPodInfo(Map<String, String> labels) {
+        String podName = labels.get("pod");
+        String podId = labels.get("uid");
+        String nameSpace = labels.get("namespace");
 
-        } catch (Exception e) {
-            e.printStackTrace(); // 로깅 시스템으로 대체 가능
+        if (podName == null || podName.isEmpty()
+                || podId == null || podId.isEmpty()
+                || nameSpace == null || nameSpace.isEmpty()) {
+            return null;
         }
+        return PodDTO.builder()
+                .podName(podName)
+                .podId(podId)
+                .nameSpace(nameSpace)
+                .nodeName(labels.get("node"))
+                .uid(podId)
+                .build();
+    }
 
+    public static Map<String, Map<String, String>> extractLabels(InputStream json, ObjectMapper objectMapper) {
+        Map<String, Map<String, String>> result = new LinkedHashMap<>();
+        read("labels", json, objectMapper, (labels, ts, value) -> {
+            // 키는 pod 이름 또는 pod+namespace 조합 등, 상황에 맞게 선택
+            String key = labels.getOrDefault("pod", UUID.randomUUID().toString());
+            result.put(key, labels);
+        });
         return result;
     }
-    public Map<String, Map<String, Double>> extractPodMetric(String json, ObjectMapper mapper) {
-        Map<String, Map<String, Double>> result = new LinkedHashMap<>();
+
+    // kube_pod_info → 테이블 행 생성 + 기본 정보
+    public void readPodInfo(InputStream json, ObjectMapper mapper, PodMetricTable table) {
+        read("pod info", json, mapper, (labels, ts, value) -> putPodInfo(table, labels));
+    }
+
+    // (namespace, pod) 별 지표 → 테이블 컬럼 (테이블에 없는 파드는 무시)
+    public void readPodColumn(InputStream json, ObjectMapper mapper, PodMetricTable table, int column) {
+        read("pod column " + column, json, mapper, (labels, ts, value) -> {
+            int row = table.find(labels.getOrDefault("namespace", ""), labels.getOrDefault("pod", ""));
+            if (row >= 0) {
+                table.set(column, row, value);
+            }
+        });
+    }
+
+    // kube_pod_status_phase → 테이블 phase 컬럼
+    public void readPodPhase(InputStream json, ObjectMapper mapper, PodMetricTable table) {
+        read("pod phase", json, mapper, (labels, ts, value) -> {
+            int row = table.find(labels.getOrDefault("namespace", ""), labels.getOrDefault("pod", ""));
+            if (row >= 0) {
+                table.markPhase(row, labels.get("phase"), value);
+            }
+        });
+    }
+
+    // 단일 쿼리 모드 응답을 한 번에 읽어 METRIC_TAG_LABEL 값에 따라 컬럼으로 분배
+    public PodMetricTable extractCombinedPodTable(InputStream json, ObjectMapper mapper) {
+        PodMetricTable table = new PodMetricTable();
+        read("combined pod table", json, mapper, (labels, ts, value) -> {
+            String metric = labels.get(PrometheusQueries.METRIC_TAG_LABEL);
+            if (metric == null) {
+                return;
+            }
+            if ("info".equals(metric)) {
+                putPodInfo(table, labels);
+                return;
+            }
+            int row = table.rowOf(labels.getOrDefault("namespace", ""), labels.getOrDefault("pod", ""));
+            if ("phase".equals(metric)) {
+                table.markPhase(row, labels.get("phase"), value);
+                return;
+            }
+            Integer column = TAGGED_COLUMNS.get(metric);
+            if (column != null) {
+                table.set(column, row, value);
+            }
+        });
+        return table;
+    }
+
+    // readSamples + 파싱 실패를 로그로 남기고 UncheckedIOException 으로 전달 (디코더는 Function 이라 checked 예외를 못 던짐)
+    private void read(String what, InputStream json, ObjectMapper mapper, SampleHandler handler) {
         try {
-            JsonNode items = mapper.readTree(json).path("data").path("result");
-            for (JsonNode item : items) {
-                String ns = item.path("metric").path("namespace").asText();
-                String pod = item.path("metric").path("pod").asText();
-                double value = item.path("value").get(1).asDouble();
-                result.computeIfAbsent(ns, k -> new LinkedHashMap<>()).put(pod, value);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+            readSamples(json, mapper, handler);
+        } catch (IOException e) {
+            log.warn("prometheus response parse failed ({}): {}", what, e.getMessage());
+            throw new UncheckedIOException(e);
         }
-        return result;
     }
 
-    public static Map<String, Map<String, Map<String, Double>>> extractPodPhaseMetric(String json, ObjectMapper mapper) {
-        Map<String, Map<String, Map<String, Double>>> result = new HashMap<>();
-        try {
-            JsonNode items = mapper.readTree(json).path("data").path("result");
-            for (JsonNode item : items) {
-                String ns = item.path("metric").path("namespace").asText();
-                String pod = item.path("metric").path("pod").asText();
-                String phase = item.path("metric").path("phase").asText();
-                double value = item.path("value").get(1).asDouble();
-
-                result
-                        .computeIfAbsent(ns, k -> new HashMap<>())
-                        .computeIfAbsent(pod, k -> new HashMap<>())
-                        .put(phase, value);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+    private void putPodInfo(PodMetricTable table, Map<String, String> labels) {
+        PodDTO info = toPodInfo(labels);
+        if (info != null) {
+            table.putInfo(table.rowOf(info.getNameSpace(), info.getPodName()), info);
         }
-        return result;
     }
 
 }
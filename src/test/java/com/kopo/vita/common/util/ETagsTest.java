@@ -0,0 +1,55 @@
+package com.kopo.vita.common.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ETagsTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void contentETagIsWeakAndStable() {
+        String etag = ETags.of(mapper, List.of("a", "b"));
+
+        assertThat(etag).startsWith("W/\"").endsWith("\"");
+        assertThat(ETags.of(mapper, List.of("a", "b"))).isEqualTo(etag);
+        assertThat(ETags.of(mapper, List.of("a", "c"))).isNotEqualTo(etag);
+    }
+
+    @Test
+    void derivedETagDependsOnEveryCondition() {
+        String base = ETags.of(mapper, List.of(1, 2, 3));
+        Map<String, Object> q1 = new HashMap<>();
+        q1.put("namespace", "a");
+        q1.put("sort", "cpu");
+        Map<String, Object> q2 = new HashMap<>(q1);
+        q2.put("cursor", "xyz");
+        Map<String, Object> q3 = new HashMap<>();
+        q3.put("namespace", "a=sort");
+        q3.put("sort", null);
+
+        assertThat(ETags.derive(base, q1)).startsWith("W/\"")
+                .isNotEqualTo(ETags.derive(base, q2))
+                .isNotEqualTo(ETags.derive(base, q3));
+        assertThat(ETags.derive(base, new HashMap<>(q1))).isEqualTo(ETags.derive(base, q1));
+    }
+
+    @Test
+    void ifNoneMatchAcceptsStrongWeakListAndWildcard() {
+        String etag = ETags.of(mapper, "x");
+        String opaque = etag.substring(2);
+
+        assertThat(ETags.matches(etag, etag)).isTrue();
+        assertThat(ETags.matches(opaque, etag)).isTrue();
+        assertThat(ETags.matches("\"other\", " + etag, etag)).isTrue();
+        assertThat(ETags.matches("*", etag)).isTrue();
+        assertThat(ETags.matches("\"other\"", etag)).isFalse();
+        assertThat(ETags.matches(null, etag)).isFalse();
+    }
+}
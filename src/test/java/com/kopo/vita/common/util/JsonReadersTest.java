@@ -0,0 +1,60 @@
+package com.kopo.vita.common.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+class JsonReadersTest {
+
+    private static final String BODY = "{\"status\":\"success\",\"data\":{\"result\":[{\"metric\":{\"pod\":\"p\"},\"value\":[1,\"2\"]}]}}";
+    private static final int ROUNDS = 2_000;
+
+    @Test
+    void sharedReaderReadsTrees() throws Exception {
+        JsonReaders readers = new JsonReaders(new ObjectMapper());
+
+        JsonNode root = readers.tree().readTree(BODY);
+
+        assertThat(root.path("data").path("result").get(0).path("metric").path("pod").asText()).isEqualTo("p");
+    }
+
+    @Test
+    void sharedReaderAllocatesFarLessThanMapperPerRequest() throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeThat(threads.isThreadAllocatedMemorySupported()).isTrue();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        JsonReaders readers = new JsonReaders(new ObjectMapper());
+
+        // 워밍업 (클래스 로딩 / 직렬화기 캐시)
+        perRequestMapper(ROUNDS);
+        sharedReader(readers, ROUNDS);
+
+        long tid = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(tid);
+        perRequestMapper(ROUNDS);
+        long perRequest = threads.getThreadAllocatedBytes(tid) - before;
+
+        before = threads.getThreadAllocatedBytes(tid);
+        sharedReader(readers, ROUNDS);
+        long shared = threads.getThreadAllocatedBytes(tid) - before;
+
+        assertThat(shared).isLessThan(perRequest / 3);
+    }
+
+    private static void perRequestMapper(int rounds) throws Exception {
+        for (int i = 0; i < rounds; i++) {
+            new ObjectMapper().readTree(BODY);
+        }
+    }
+
+    private static void sharedReader(JsonReaders readers, int rounds) throws Exception {
+        for (int i = 0; i < rounds; i++) {
+            readers.tree().readTree(BODY);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.kopo.vita.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryKeysTest {
+
+    @Test
+    void collapsesWhitespaceOutsideStrings() {
+        assertThat(QueryKeys.normalize("  sum( rate(x[1m]) )\n by  (pod) "))
+                .isEqualTo("sum( rate(x[1m]) ) by (pod)");
+    }
+
+    @Test
+    void keepsAllStringKindsIntact() {
+        assertThat(QueryKeys.normalize("x{a=\"1  2\",  b='3  4', c=~`5  \\\\  6`}"))
+                .isEqualTo("x{a=\"1  2\", b='3  4', c=~`5  \\\\  6`}");
+    }
+
+    @Test
+    void handlesEscapedQuotesAndBackslashes() {
+        // "a\\" 는 백슬래시로 끝나는 문자열, 그 뒤 공백은 문자열 밖
+        assertThat(QueryKeys.normalize("x{a=\"a\\\\\"   ,b=\"q\\\"  q\"}"))
+                .isEqualTo("x{a=\"a\\\\\" ,b=\"q\\\"  q\"}");
+        assertThat(QueryKeys.normalize("{a='it\\'s  x'}  "))
+                .isEqualTo("{a='it\\'s  x'}");
+    }
+
+    @Test
+    void queriesDifferingInsideStringsGetDifferentKeys() {
+        assertThat(QueryKeys.normalize("x{a='1 2'}")).isNotEqualTo(QueryKeys.normalize("x{a='1  2'}"));
+    }
+
+    @Test
+    void alignDownToStep() {
+        assertThat(QueryKeys.alignDown(Instant.ofEpochSecond(125), Duration.ofSeconds(60)))
+                .isEqualTo(Instant.ofEpochSecond(120));
+    }
+}
@@ -0,0 +1,110 @@
+package com.kopo.vita.common.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> group = new SingleFlight<>("test");
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+
+    // 호출 / 구독 횟수를 세는 upstream
+    private Mono<String> upstream(Mono<String> source) {
+        calls.incrementAndGet();
+        return source.doOnSubscribe(s -> subscriptions.incrementAndGet());
+    }
+
+    @Test
+    void concurrentCallersShareOneUpstreamSubscription() throws Exception {
+        Sinks.One<String> sink = Sinks.one();
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch ready = new CountDownLatch(callers);
+        CountDownLatch go = new CountDownLatch(1);
+        List<CompletableFuture<String>> results = new CopyOnWriteArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                pool.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    results.add(group.execute("k", () -> upstream(sink.asMono())).toFuture());
+                    return null;
+                });
+            }
+            ready.await();
+            go.countDown();
+            pool.shutdown();
+            assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(group.getStats()).containsEntry("inFlight", 1);
+            sink.tryEmitValue("v");
+
+            for (CompletableFuture<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("v");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(calls).hasValue(1);
+        assertThat(subscriptions).hasValue(1);
+        assertThat(group.getStats())
+                .containsEntry("hits", (long) callers - 1)
+                .containsEntry("misses", 1L)
+                .containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void completedCallIsNotCached() {
+        assertThat(group.execute("k", () -> upstream(Mono.just("a"))).block(Duration.ofSeconds(5))).isEqualTo("a");
+        assertThat(group.execute("k", () -> upstream(Mono.just("b"))).block(Duration.ofSeconds(5))).isEqualTo("b");
+
+        assertThat(calls).hasValue(2);
+        assertThat(group.getStats())
+                .containsEntry("hits", 0L)
+                .containsEntry("misses", 2L)
+                .containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void failedCallRemovesKey() {
+        Mono<String> failed = group.execute("k", () -> upstream(Mono.error(new IllegalStateException("boom"))));
+
+        assertThatThrownBy(() -> failed.block(Duration.ofSeconds(5))).hasMessageContaining("boom");
+        assertThat(group.getStats()).containsEntry("inFlight", 0);
+
+        // 실패한 호출을 공유하지 않고 다시 upstream 호출
+        assertThat(group.execute("k", () -> upstream(Mono.just("ok"))).block(Duration.ofSeconds(5))).isEqualTo("ok");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void cancelledCallRemovesKey() {
+        Sinks.One<String> sink = Sinks.one();
+        AtomicInteger cancels = new AtomicInteger();
+        Disposable first = group.execute("k", () -> upstream(sink.asMono().doOnCancel(cancels::incrementAndGet)))
+                .subscribe();
+        Disposable second = group.execute("k", () -> upstream(sink.asMono())).subscribe();
+        assertThat(group.getStats()).containsEntry("inFlight", 1);
+
+        // 구독자가 하나라도 남아 있으면 upstream 유지
+        first.dispose();
+        assertThat(cancels).hasValue(0);
+        assertThat(group.getStats()).containsEntry("inFlight", 1);
+
+        second.dispose();
+        assertThat(cancels).hasValue(1);
+        assertThat(group.getStats()).containsEntry("inFlight", 0);
+        assertThat(calls).hasValue(1);
+    }
+}
@@ -0,0 +1,93 @@
+package com.kopo.vita.loganalysis.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kopo.vita.common.util.JsonReaders;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GeminiClientServiceTest {
+
+    private static final String ANALYSIS = "{\"situation\":\"정상입니다\",\"analysis\":\"a\",\"rootCause\":\"r\",\"recommendations\":[]}";
+
+    private HttpServer server;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    // 응답 헤더와 첫 청크를 보낸 뒤 stall 이면 release 까지 본문을 멈춘다
+    private GeminiClientService start(boolean stall) throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                int half = ANALYSIS.length() / 2;
+                out.write(chunk(ANALYSIS.substring(0, half)));
+                out.flush();
+                if (stall) {
+                    release.await(30, TimeUnit.SECONDS);
+                }
+                out.write(chunk(ANALYSIS.substring(half)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+        String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/m:generateContent";
+        return new GeminiClientService(base, "k", "", 1000, 500, new JsonReaders(new ObjectMapper()));
+    }
+
+    private static byte[] chunk(String text) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        String json = mapper.writeValueAsString(mapper.createObjectNode()
+                .set("candidates", mapper.createArrayNode().add(mapper.createObjectNode()
+                        .set("content", mapper.createObjectNode()
+                                .set("parts", mapper.createArrayNode().add(mapper.createObjectNode().put("text", text)))))));
+        return ("data: " + json + "\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void parsesCompleteStreamAndRelaysPartials() throws Exception {
+        GeminiClientService service = start(false);
+        List<String> partials = new CopyOnWriteArrayList<>();
+
+        JsonNode analysis = service.streamGeminiAndParse(
+                service.buildGeminiRequest(new ObjectMapper().createObjectNode()),
+                (field, text) -> partials.add(field + ":" + text));
+
+        assertThat(analysis.path("situation").asText()).isEqualTo("정상입니다");
+        assertThat(String.join("", partials)).contains("situation:");
+    }
+
+    @Test
+    void stalledStreamTimesOutWithoutWaitingForNextLine() throws Exception {
+        GeminiClientService service = start(true);
+        long startedAt = System.nanoTime();
+
+        assertThatThrownBy(() -> service.streamGeminiAndParse(
+                service.buildGeminiRequest(new ObjectMapper().createObjectNode()), (field, text) -> { }))
+                .isInstanceOf(HttpTimeoutException.class);
+
+        // 서버는 30초 동안 멈춰 있지만 stream-timeout(500ms) 근처에서 끊겨야 함
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)).isLessThan(5_000);
+    }
+}
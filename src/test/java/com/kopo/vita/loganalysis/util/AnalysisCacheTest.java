@@ -0,0 +1,60 @@
+package com.kopo.vita.loganalysis.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisCacheTest {
+
+    private static final JsonNode A = TextNode.valueOf("a");
+    private static final JsonNode B = TextNode.valueOf("b");
+
+    @Test
+    void latestIsNotCountedAsHit() {
+        AnalysisCache cache = new AnalysisCache(Duration.ofMinutes(5), 10);
+        cache.put("a", A, "ns", "app");
+
+        assertThat(cache.latest()).isEqualTo(A);
+        assertThat(cache.latest()).isEqualTo(A);
+        assertThat(cache.getStats()).containsEntry("hits", 0L).containsEntry("misses", 0L);
+    }
+
+    @Test
+    void latestFollowsLastPutOrHit() {
+        AnalysisCache cache = new AnalysisCache(Duration.ofMinutes(5), 10);
+        cache.put("a", A, "ns", "app");
+        cache.put("b", B, "ns", "app");
+        assertThat(cache.latest()).isEqualTo(B);
+
+        cache.get("a");
+        assertThat(cache.latest()).isEqualTo(A);
+
+        // miss 는 latest 를 바꾸지 않음
+        cache.get("x");
+        assertThat(cache.latest()).isEqualTo(A);
+    }
+
+    @Test
+    void latestIsGoneAfterInvalidate() {
+        AnalysisCache cache = new AnalysisCache(Duration.ofMinutes(5), 10);
+        cache.put("a", A, "ns", "app");
+        cache.put("b", B, "other", "app");
+
+        cache.invalidate("other", null);
+
+        assertThat(cache.latest()).isNull();
+        assertThat(cache.get("a")).isEqualTo(A);
+    }
+
+    @Test
+    void latestExpiresWithTtl() {
+        AnalysisCache cache = new AnalysisCache(Duration.ofMillis(-1), 10);
+        cache.put("a", A, "ns", "app");
+
+        assertThat(cache.latest()).isNull();
+    }
+}
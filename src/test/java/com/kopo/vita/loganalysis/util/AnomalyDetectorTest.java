@@ -0,0 +1,97 @@
+package com.kopo.vita.loganalysis.util;
+
+import com.kopo.vita.loganalysis.dto.AnomalyDTO;
+import com.kopo.vita.loganalysis.util.MetricFrame.Aggregation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnomalyDetectorTest {
+
+    private static final Instant START = Instant.ofEpochSecond(1_000_020);
+    private static final Duration STEP = Duration.ofSeconds(30);
+
+    // application.yaml 기본값
+    private final AnomalyDetector detector = new AnomalyDetector(5.0, 3.0, 3, 0.1, 3.0, 5, 0.3, 2);
+
+    // 인스턴스 하나짜리 지표 열
+    private static MetricFrame frame(String metric, double... values) {
+        Instant end = START.plus(STEP.multipliedBy(values.length - 1));
+        MetricFrame.InstanceSeries series = new MetricFrame.InstanceSeries(START, end, STEP);
+        double[] samples = new double[values.length * 2];
+        for (int i = 0; i < values.length; i++) {
+            samples[i * 2] = START.getEpochSecond() + i * STEP.toSeconds();
+            samples[i * 2 + 1] = values[i];
+        }
+        series.add("a", samples, samples.length);
+        MetricFrame frame = new MetricFrame(START, end, STEP);
+        frame.add(metric, series, Aggregation.MEAN);
+        return frame;
+    }
+
+    private static List<String> types(AnomalyDetector.Result result) {
+        return result.anomalies().stream().map(AnomalyDTO::getType).toList();
+    }
+
+    @Test
+    void healthySeriesHasNoAnomalies() {
+        AnomalyDetector.Result result = detector.detect(frame("cpuUsage", 50, 51, 49, 50, 52, 48, 50, 51, 49, 50, 51, 50));
+
+        assertThat(result.anomalies()).isEmpty();
+        assertThat(result.focusRows().isEmpty()).isTrue();
+    }
+
+    @Test
+    void spikeAgainstEwma() {
+        AnomalyDetector.Result result = detector.detect(frame("httpTraffic", 10, 11, 9, 10, 10, 11, 100, 10));
+
+        assertThat(result.anomalies()).hasSize(1);
+        AnomalyDTO spike = result.anomalies().get(0);
+        assertThat(spike.getType()).isEqualTo("SPIKE");
+        assertThat(spike.getTimestamp()).isEqualTo(START.plus(STEP.multipliedBy(6)));
+        assertThat(spike.getValue()).isEqualTo(100);
+        // 앞뒤 context 2행
+        assertThat(result.focusRows().stream().boxed().toList()).startsWith(4, 5, 6, 7);
+    }
+
+    @Test
+    void deviationOutsideSigmaBand() {
+        AnomalyDetector.Result result = detector.detect(frame("memoryUsage", 50, 51, 49, 50, 51, 49, 50, 60, 50));
+
+        assertThat(types(result)).containsExactly("DEVIATION");
+        assertThat(result.anomalies().get(0).getBaseline()).isEqualTo(50);
+    }
+
+    @Test
+    void trendBeyondSeriesVarianceIsReported() {
+        // 평소 ±5 로 오르내리다가 92 → 114 로 세 번 연속 상승 (마지막 값은 아직 평균 ± 3σ 안)
+        AnomalyDetector.Result result = detector.detect(
+                frame("memoryUsage", 95, 105, 95, 105, 95, 105, 95, 105, 92, 100, 108, 114));
+
+        assertThat(types(result)).containsExactly("TREND_UP");
+        AnomalyDTO trend = result.anomalies().get(0);
+        assertThat(trend.getBaseline()).isEqualTo(92);
+        assertThat(trend.getTimestamp()).isEqualTo(START.plus(STEP.multipliedBy(11)));
+        // 추세 시작 행부터 context 포함
+        assertThat(result.focusRows().stream().boxed().toList()).startsWith(6, 7, 8, 9, 10, 11);
+    }
+
+    @Test
+    void heapSawtoothIsNotATrend() {
+        AnomalyDetector.Result result = detector.detect(
+                frame("memoryUsage", 40, 50, 60, 70, 40, 50, 60, 70, 40, 50, 60, 70, 40, 50, 60, 70));
+
+        assertThat(result.anomalies()).isEmpty();
+    }
+
+    @Test
+    void risingFromZeroIsNotATrend() {
+        AnomalyDetector.Result result = detector.detect(frame("gcCount", 0, 0, 0, 0, 0, 0, 0, 0, 1, 2, 3));
+
+        assertThat(types(result)).doesNotContain("TREND_UP", "TREND_DOWN");
+    }
+}
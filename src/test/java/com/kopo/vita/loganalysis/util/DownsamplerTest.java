@@ -0,0 +1,62 @@
+package com.kopo.vita.loganalysis.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DownsamplerTest {
+
+    private static final int SIZE = 100;
+
+    private static double[] x() {
+        double[] x = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            x[i] = 1_000_000 + i * 30;
+        }
+        return x;
+    }
+
+    // 10 / 11 로 오르내리는 값에 스파이크(37) 하나, 급락(71) 하나
+    private static double[] y() {
+        double[] y = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            y[i] = i % 2 == 0 ? 10 : 11;
+        }
+        y[37] = 100;
+        y[71] = -50;
+        return y;
+    }
+
+    @Test
+    void keepsEndpointsAndExtremes() {
+        int[] kept = Downsampler.lttb(x(), y(), SIZE, 20);
+
+        assertThat(kept).hasSize(20);
+        assertThat(kept[0]).isEqualTo(0);
+        assertThat(kept[kept.length - 1]).isEqualTo(SIZE - 1);
+        assertThat(kept).contains(37, 71);
+        assertThat(kept).isSorted();
+    }
+
+    @Test
+    void keepsSpikeNextToMissingValues() {
+        double[] y = y();
+        for (int i = 30; i < 37; i++) {
+            y[i] = Double.NaN;
+        }
+
+        int[] kept = Downsampler.lttb(x(), y, SIZE, 20);
+
+        assertThat(kept).contains(0, 37, 71, SIZE - 1);
+    }
+
+    @Test
+    void returnsEveryIndexWhenUnderThreshold() {
+        assertThat(Downsampler.lttb(x(), y(), 5, 20)).containsExactly(0, 1, 2, 3, 4);
+    }
+
+    @Test
+    void keepsOnlyEndpointsBelowThreePoints() {
+        assertThat(Downsampler.lttb(x(), y(), SIZE, 2)).containsExactly(0, SIZE - 1);
+    }
+}
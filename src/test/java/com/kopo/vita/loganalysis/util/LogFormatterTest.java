@@ -0,0 +1,91 @@
+package com.kopo.vita.loganalysis.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kopo.vita.loganalysis.dto.GcLogDTO;
+import com.kopo.vita.loganalysis.dto.LogEventDTO;
+import com.kopo.vita.loganalysis.dto.SystemMetricLogDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogFormatterTest {
+
+    private static final String METRIC_LINE =
+            "CPU 부하: 0.42, JVM 메모리: 63.5%, 힙: x, 스레드 수: 31, 프로세서 수: 4, 디스크: /app: 71.2%";
+    private static final String GC_LINE =
+            "[12.345s][info][gc] GC(7) Pause Young (Normal) (G1 Evacuation Pause) 24M->8M(256M) 3.1ms";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LogFormatter.StreamInfo stream = new LogFormatter.StreamInfo("app", "pod-1");
+
+    @Test
+    void classifiesMetricLine() {
+        LogEventDTO event = LogFormatter.classify(Instant.EPOCH, stream, METRIC_LINE);
+
+        assertThat(event).isInstanceOfSatisfying(SystemMetricLogDTO.class, m -> {
+            assertThat(m.getCpuLoad()).isEqualTo(0.42);
+            assertThat(m.getJvmMemory()).isEqualTo(63.5);
+            assertThat(m.getThreadCount()).isEqualTo(31);
+            assertThat(m.getProcessorCount()).isEqualTo(4);
+            assertThat(m.getDiskUsage()).isEqualTo(71.2);
+            assertThat(m.getPod()).isEqualTo("pod-1");
+        });
+    }
+
+    @Test
+    void classifiesGcLineAcrossLineBreaks() {
+        LogEventDTO event = LogFormatter.classify(Instant.EPOCH, stream, GC_LINE + "\r\n");
+
+        assertThat(event).isInstanceOfSatisfying(GcLogDTO.class, gc -> {
+            assertThat(gc.getGcId()).isEqualTo(7);
+            assertThat(gc.getGcUptime()).isEqualTo("12.345s");
+            assertThat(gc.getGcType()).startsWith("Pause Young");
+        });
+    }
+
+    @Test
+    void otherLinesAreNotCandidates() {
+        assertThat(LogFormatter.isCandidate("INFO request handled")).isFalse();
+        assertThat(LogFormatter.classify(Instant.EPOCH, stream, "INFO request handled")).isNull();
+    }
+
+    @Test
+    void lineFilterRegexEscapesMarkers() {
+        assertThat(LogFormatter.lineFilterRegex()).isEqualTo("CPU 부하|GC\\(");
+    }
+
+    @Test
+    void readLokiEventsDropsNonCandidatesAndReadsLabelsAfterValues() throws Exception {
+        String json = """
+                {"status":"success","data":{"resultType":"streams","result":[
+                  {"values":[["1000000000","%s"],["2000000000","plain line"],["3000000000","%s"]],
+                   "stream":{"app":"testapp","filename":"/var/log/pods/default_pod-9_uid/app/0.log"}}
+                ]}}""".formatted(METRIC_LINE, GC_LINE.replace("\"", "\\\""));
+
+        List<LogEventDTO> events = LogFormatter.readLokiEvents(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), mapper);
+
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0)).isInstanceOf(SystemMetricLogDTO.class);
+        assertThat(events.get(1)).isInstanceOf(GcLogDTO.class);
+        assertThat(events.get(0).getPod()).isEqualTo("pod-9_uid");
+        assertThat(events.get(1).getTimestamp()).isEqualTo(Instant.ofEpochSecond(3));
+    }
+
+    @Test
+    void readLokiEntriesDeliversEveryLine() throws Exception {
+        String json = "{\"data\":{\"result\":[{\"stream\":{\"app\":\"a\"},\"values\":[[\"1\",\"x\"],[\"2\",\"y\"]]}]}}";
+        List<String> lines = new ArrayList<>();
+
+        LogFormatter.readLokiEntries(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), mapper,
+                (labels, s, ns, line) -> lines.add(line));
+
+        assertThat(lines).containsExactly("x", "y");
+    }
+}
@@ -0,0 +1,66 @@
+package com.kopo.vita.loganalysis.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kopo.vita.loganalysis.util.MetricFrame.Aggregation;
+import com.kopo.vita.prometheus.util.PrometheusResultParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetricFrameTest {
+
+    private static final Instant START = Instant.ofEpochSecond(1_000_020);
+    private static final Instant END = START.plusSeconds(90);
+    private static final Duration STEP = Duration.ofSeconds(30);
+
+    // instance a: 시리즈 두 개 (같은 행에서 합산 / 평균), instance b: 하나 (한 행 비어 있음, 시각이 step 경계에서 조금 어긋남)
+    private static final String BODY = """
+            {"status":"success","data":{"resultType":"matrix","result":[
+              {"metric":{"instance":"a","uri":"/x"},"values":[[1000020,"1"],[1000050,"2"],[1000080,"3"],[1000110,"4"]]},
+              {"metric":{"instance":"a","uri":"/y"},"values":[[1000020,"3"],[1000050,"NaN"]]},
+              {"metric":{"instance":"b"},"values":[[1000021,"10"],[1000079,"30"],[1000110,"40"]]}
+            ]}}""";
+
+    private static MetricFrame.InstanceSeries parse(String body) throws Exception {
+        MetricFrame.InstanceSeries series = new MetricFrame.InstanceSeries(START, END, STEP);
+        PrometheusResultParser.readSeries(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                new ObjectMapper(), (labels, samples, size) -> series.add(labels.getOrDefault("instance", ""), samples, size));
+        return series;
+    }
+
+    @Test
+    void meanAveragesSeriesWithinInstanceThenAcrossInstances() throws Exception {
+        MetricFrame frame = new MetricFrame(START, END, STEP);
+        frame.add("cpu", parse(BODY), Aggregation.MEAN);
+
+        assertThat(frame.instances("cpu").get("a")).containsExactly(2.0, 2.0, 3.0, 4.0);
+        assertThat(frame.instances("cpu").get("b")).containsExactly(10.0, Double.NaN, 30.0, 40.0);
+        assertThat(frame.columns().get("cpu")).containsExactly(6.0, 2.0, 16.5, 22.0);
+        assertThat(frame.stat("cpu").get("max")).isEqualTo(22.0);
+        assertThat(frame.presentRows().cardinality()).isEqualTo(4);
+    }
+
+    @Test
+    void sumAddsSeriesAndInstances() throws Exception {
+        MetricFrame frame = new MetricFrame(START, END, STEP);
+        frame.add("traffic", parse(BODY), Aggregation.SUM);
+
+        assertThat(frame.instances("traffic").get("a")).containsExactly(4.0, 2.0, 3.0, 4.0);
+        assertThat(frame.columns().get("traffic")).containsExactly(14.0, 2.0, 33.0, 44.0);
+    }
+
+    @Test
+    void rejectsSeriesFromDifferentWindow() {
+        MetricFrame frame = new MetricFrame(START, END, STEP);
+        MetricFrame.InstanceSeries other = new MetricFrame.InstanceSeries(START.plusSeconds(30), END.plusSeconds(30), STEP);
+
+        assertThatThrownBy(() -> frame.add("cpu", other, Aggregation.MEAN))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
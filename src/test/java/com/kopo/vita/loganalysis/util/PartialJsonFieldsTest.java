@@ -0,0 +1,60 @@
+package com.kopo.vita.loganalysis.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartialJsonFieldsTest {
+
+    // 청크를 하나씩 이어 붙이며 onText 를 부르고 필드별 delta 를 "name:delta" 로 모은다
+    private List<String> feed(PartialJsonFields fields, String... chunks) {
+        List<String> out = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        for (String chunk : chunks) {
+            text.append(chunk);
+            fields.onText(text, (name, delta) -> out.add(name + ":" + delta));
+        }
+        return out;
+    }
+
+    @Test
+    void emitsOnlyNewlyDecodedTextPerField() {
+        PartialJsonFields fields = new PartialJsonFields("situation", "analysis");
+
+        List<String> out = feed(fields,
+                "{\"situa", "tion\" : \"현재 ", "정상\\n입니다\", \"analy", "sis\":\"CPU", " 급증\"}");
+
+        assertThat(out).containsExactly(
+                "situation:현재 ", "situation:정상\n입니다", "analysis:CPU", "analysis: 급증");
+    }
+
+    @Test
+    void waitsForAllFourDigitsOfUnicodeEscape() {
+        PartialJsonFields fields = new PartialJsonFields("situation");
+
+        List<String> out = feed(fields, "{\"situation\":\"a\\u", "00", "41b\"}");
+
+        assertThat(String.join("|", out)).isEqualTo("situation:a|situation:Ab");
+    }
+
+    @Test
+    void invalidUnicodeEscapeDoesNotBreakTheStream() {
+        PartialJsonFields fields = new PartialJsonFields("situation");
+
+        List<String> out = feed(fields, "{\"situation\":\"\\uZZ12", "x\"}");
+
+        assertThat(String.join("", out)).isEqualTo("situation:uZZ12situation:x");
+    }
+
+    @Test
+    void ignoresValuesBeforeTheKeyArrives() {
+        PartialJsonFields fields = new PartialJsonFields("analysis");
+
+        List<String> out = feed(fields, "{\"situation\":\"x\",", " \"anal", "ysis\"", ":", "\"y\"}");
+
+        assertThat(out).containsExactly("analysis:y");
+    }
+}
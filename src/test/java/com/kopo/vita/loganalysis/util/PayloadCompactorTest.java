@@ -0,0 +1,163 @@
+package com.kopo.vita.loganalysis.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kopo.vita.common.util.JsonReaders;
+import com.kopo.vita.loganalysis.dto.GcLogDTO;
+import com.kopo.vita.loganalysis.dto.LogEventDTO;
+import com.kopo.vita.loganalysis.dto.SystemMetricLogDTO;
+import com.kopo.vita.loganalysis.util.MetricFrame.Aggregation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayloadCompactorTest {
+
+    private static final Instant START = Instant.ofEpochSecond(1_000_020);
+    private static final Duration STEP = Duration.ofSeconds(30);
+    private static final int ROWS = 120;
+    private static final int GC_GROUPS = 40;
+
+    private final JsonReaders readers = new JsonReaders(new ObjectMapper());
+    private final MetricFrame frame = frame();
+    private final List<LogEventDTO> logs = logs();
+
+    // 지표 2개 × 120행 (주기가 달라 지표마다 LTTB 가 고르는 행이 다름)
+    private static MetricFrame frame() {
+        Instant end = START.plus(STEP.multipliedBy(ROWS - 1));
+        MetricFrame frame = new MetricFrame(START, end, STEP);
+        for (String metric : List.of("cpuUsage", "memoryUsage")) {
+            MetricFrame.InstanceSeries series = new MetricFrame.InstanceSeries(START, end, STEP);
+            double[] samples = new double[ROWS * 2];
+            for (int i = 0; i < ROWS; i++) {
+                samples[i * 2] = START.getEpochSecond() + i * STEP.toSeconds();
+                samples[i * 2 + 1] = 50 + 20 * Math.sin(i / (double) metric.length());
+            }
+            series.add("a", samples, samples.length);
+            frame.add(metric, series, Aggregation.MEAN);
+        }
+        return frame;
+    }
+
+    // 파드 2개의 메트릭 로그 (값이 모두 달라 묶이지 않음) + 종류가 다른 GC 로그 묶음 40개
+    private static List<LogEventDTO> logs() {
+        List<LogEventDTO> logs = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            logs.add(SystemMetricLogDTO.builder()
+                    .timestamp(START.plusSeconds(i * 10L))
+                    .app("app")
+                    .pod("pod-" + (i % 2))
+                    .cpuLoad(0.1 + i * 0.01)
+                    .jvmMemory(40 + (i * 7) % 50)
+                    .threadCount(30 + i % 5)
+                    .processorCount(4)
+                    .diskUsage(60)
+                    .build());
+        }
+        for (int g = 0; g < GC_GROUPS; g++) {
+            for (int i = 0; i <= g % 5; i++) {
+                logs.add(GcLogDTO.builder()
+                        .timestamp(START.plusSeconds(g * 60L + i))
+                        .app("app")
+                        .pod("pod-0")
+                        .gcUptime(g + ".5s")
+                        .gcId(g * 10L + i)
+                        .gcType("Pause Young (Normal) type-" + (char) ('a' + g % 26) + (char) ('a' + g / 26))
+                        .gcDetail("(G1 Evacuation Pause) " + (100 + i) + "M->" + (20 + i) + "M(512M) " + i + ".25ms")
+                        .build());
+            }
+        }
+        return logs;
+    }
+
+    private ObjectNode compact(int tokenBudget) {
+        PayloadCompactor compactor = new PayloadCompactor(readers, tokenBudget, 60, 200, 30);
+        BitSet rows = new BitSet();
+        rows.set(0, ROWS);
+        return compactor.compact(frame.start(), frame.end(), Map.of(), frame, rows, logs, List.of(), List.of());
+    }
+
+    private static long seriesRows(JsonNode payload) {
+        return payload.path("metrics").path("series").path("rows").asText().lines().count();
+    }
+
+    private static long logRows(JsonNode payload) {
+        return payload.path("logs").path("systemMetrics").path("rows").asText().lines().count();
+    }
+
+    private static int gcGroups(JsonNode payload) {
+        return payload.path("logs").path("gc").size();
+    }
+
+    private static boolean hasGcDetail(JsonNode payload) {
+        return payload.path("logs").path("gc").get(0).has("lastDetail");
+    }
+
+    @Test
+    void keepsEverythingWithinBudget() {
+        ObjectNode payload = compact(1_000_000);
+
+        assertThat(hasGcDetail(payload)).isTrue();
+        assertThat(logRows(payload)).isEqualTo(200);
+        assertThat(gcGroups(payload)).isEqualTo(30);
+        assertThat(payload.path("logs").path("gcGroupsOmitted").asInt()).isEqualTo(GC_GROUPS - 30);
+        assertThat(seriesRows(payload)).isBetween(30L, 60L);
+    }
+
+    @Test
+    void dropsGcDetailFirst() {
+        ObjectNode full = compact(1_000_000);
+        long fullSeriesRows = seriesRows(full);
+        full.remove("estimatedTokens");
+        full.path("logs").path("gc").forEach(g -> ((ObjectNode) g).remove("lastDetail"));
+        int budget = PayloadCompactor.estimateTokens(full.toString());
+
+        ObjectNode payload = compact(budget);
+
+        assertThat(payload.path("estimatedTokens").asInt()).isLessThanOrEqualTo(budget);
+        assertThat(hasGcDetail(payload)).isFalse();
+        assertThat(logRows(payload)).isEqualTo(200);
+        assertThat(gcGroups(payload)).isEqualTo(30);
+        assertThat(seriesRows(payload)).isEqualTo(fullSeriesRows);
+    }
+
+    @Test
+    void trimsLowestValueContentFirstUntilWithinBudget() {
+        ObjectNode fullPayload = compact(1_000_000);
+        int full = fullPayload.path("estimatedTokens").asInt();
+        long fullSeriesRows = seriesRows(fullPayload);
+        int minimal = compact(1).path("estimatedTokens").asInt();
+
+        for (int budget = minimal; budget < full; budget += (full - minimal) / 20) {
+            ObjectNode payload = compact(budget);
+
+            assertThat(payload.path("estimatedTokens").asInt()).isLessThanOrEqualTo(budget);
+            // 로그 행 → GC 그룹 → 시계열 순으로 줄어듦
+            if (logRows(payload) < 200) {
+                assertThat(hasGcDetail(payload)).isFalse();
+            }
+            if (gcGroups(payload) < 30) {
+                assertThat(logRows(payload)).isLessThanOrEqualTo(10);
+            }
+            if (seriesRows(payload) < fullSeriesRows) {
+                assertThat(gcGroups(payload)).isEqualTo(3);
+            }
+        }
+    }
+
+    @Test
+    void returnsSmallestPayloadWhenBudgetIsUnreachable() {
+        ObjectNode payload = compact(1);
+
+        assertThat(payload.path("estimatedTokens").asInt()).isGreaterThan(1);
+        assertThat(hasGcDetail(payload)).isFalse();
+        assertThat(logRows(payload)).isLessThanOrEqualTo(10);
+        assertThat(gcGroups(payload)).isEqualTo(3);
+        assertThat(seriesRows(payload)).isLessThanOrEqualTo(10);
+    }
+}
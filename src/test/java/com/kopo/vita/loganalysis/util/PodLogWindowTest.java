@@ -0,0 +1,73 @@
+package com.kopo.vita.loganalysis.util;
+
+import com.kopo.vita.loganalysis.dto.GcLogDTO;
+import com.kopo.vita.loganalysis.dto.LogEventDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PodLogWindowTest {
+
+    private static final Instant T0 = Instant.parse("2025-06-30T10:00:00Z");
+
+    private static LogEventDTO event(String pod, int second, long id) {
+        return GcLogDTO.builder().pod(pod).timestamp(T0.plusSeconds(second)).gcId(id).build();
+    }
+
+    private static List<Long> ids(List<LogEventDTO> events) {
+        return events.stream().map(e -> ((GcLogDTO) e).getGcId()).toList();
+    }
+
+    // 같은 파드의 두 스트림(컨테이너 a: 1,3,5 / 재시작된 b: 2,4,6)이 스트림 단위로 들어옴
+    private static PodLogWindow interleaved(int maxPerPod) {
+        PodLogWindow window = new PodLogWindow(Duration.ofSeconds(10), maxPerPod);
+        for (int s : new int[]{1, 3, 5}) {
+            window.add(event("p", s, s));
+        }
+        for (int s : new int[]{2, 4, 6}) {
+            window.add(event("p", s, s));
+        }
+        return window;
+    }
+
+    @Test
+    void snapshotKeepsNewerLinesFromInterleavedStreams() {
+        PodLogWindow window = interleaved(100);
+
+        assertThat(ids(window.snapshot(T0.plusSeconds(3)))).containsExactly(3L, 4L, 5L, 6L);
+        assertThat(ids(window.snapshot(T0))).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    void evictBeforeDropsEveryExpiredLine() {
+        PodLogWindow window = interleaved(100);
+
+        // retention 10초 → cutoff = T0 + 4초
+        window.evictBefore(T0.plusSeconds(14));
+
+        assertThat(ids(window.snapshot(T0))).containsExactly(4L, 5L, 6L);
+        assertThat(window.getStats()).containsEntry("evicted", 3L);
+    }
+
+    @Test
+    void perPodLimitDropsOldestByTimestamp() {
+        PodLogWindow window = interleaved(4);
+
+        assertThat(ids(window.snapshot(T0))).containsExactly(3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    void sameTimestampKeepsArrivalOrder() {
+        PodLogWindow window = new PodLogWindow(Duration.ofSeconds(10), 100);
+        window.add(event("p", 2, 1));
+        window.add(event("p", 1, 2));
+        window.add(event("p", 2, 3));
+        window.add(event("p", 1, 4));
+
+        assertThat(ids(window.snapshot(T0))).containsExactly(2L, 4L, 1L, 3L);
+    }
+}
@@ -0,0 +1,59 @@
+package com.kopo.vita.loganalysis.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TailCursorTest {
+
+    @Test
+    void restartsAtLastTimestampAndSkipsOnlySeenBoundaryEntries() {
+        TailCursor cursor = new TailCursor();
+        cursor.advanceTo(100);
+
+        cursor.beginPage();
+        assertThat(cursor.accept(100, "{app=a}", "x")).isTrue();
+        assertThat(cursor.accept(200, "{app=a}", "y")).isTrue();
+        assertThat(cursor.endPage()).isTrue();
+        assertThat(cursor.position()).isEqualTo(200);
+
+        // 다음 조회는 200 부터: 이미 받은 엔트리만 버리고 같은 ns 의 새 엔트리는 받음
+        cursor.beginPage();
+        assertThat(cursor.accept(200, "{app=a}", "y")).isFalse();
+        assertThat(cursor.accept(200, "{app=a}", "z")).isTrue();
+        assertThat(cursor.accept(200, "{app=b}", "y")).isTrue();
+        assertThat(cursor.endPage()).isFalse();
+        assertThat(cursor.boundarySize()).isEqualTo(3);
+
+        cursor.beginPage();
+        assertThat(cursor.accept(200, "{app=a}", "z")).isFalse();
+        assertThat(cursor.accept(300, "{app=a}", "y")).isTrue();
+        assertThat(cursor.endPage()).isTrue();
+        assertThat(cursor.boundarySize()).isEqualTo(1);
+    }
+
+    @Test
+    void ignoresEntriesBeforeStart() {
+        TailCursor cursor = new TailCursor();
+        cursor.advanceTo(500);
+
+        cursor.beginPage();
+        assertThat(cursor.accept(499, "{app=a}", "x")).isFalse();
+        assertThat(cursor.endPage()).isFalse();
+        assertThat(cursor.position()).isEqualTo(500);
+    }
+
+    @Test
+    void skipBoundaryMovesPastStuckTimestamp() {
+        TailCursor cursor = new TailCursor();
+        cursor.advanceTo(10);
+        cursor.beginPage();
+        cursor.accept(10, "{app=a}", "x");
+        cursor.endPage();
+
+        cursor.skipBoundary();
+
+        assertThat(cursor.position()).isEqualTo(11);
+        assertThat(cursor.boundarySize()).isZero();
+    }
+}
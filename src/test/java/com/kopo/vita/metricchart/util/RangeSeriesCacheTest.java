@@ -0,0 +1,85 @@
+package com.kopo.vita.metricchart.util;
+
+import com.kopo.vita.metricchart.dto.DataPointDTO;
+import com.kopo.vita.metricchart.dto.MetricDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RangeSeriesCacheTest {
+
+    private static final String KEY = "up|60";
+
+    @Test
+    void refetchedTailReplacesCachedValues() {
+        RangeSeriesCache cache = new RangeSeriesCache(1000);
+        cache.merge(KEY, List.of(series("s", 0, 1.0, 60, 2.0, 120, 3.0)), 0, 0, 120);
+
+        // 마지막 step(120)을 포함해 다시 조회: 값이 바뀌고 새 step(180)이 붙음
+        List<MetricDTO> merged = cache.merge(KEY, List.of(series("s", 120, 30.0, 180, 4.0)), 120, 0, 180);
+
+        assertThat(values(merged.get(0))).containsExactly(1.0, 2.0, 30.0, 4.0);
+        assertThat(cache.getStats()).containsEntry("points", 4L);
+    }
+
+    @Test
+    void pointsMissingFromRefetchAreDropped() {
+        RangeSeriesCache cache = new RangeSeriesCache(1000);
+        cache.merge(KEY, List.of(series("s", 0, 1.0, 60, 2.0), series("gone", 60, 9.0)), 0, 0, 60);
+
+        List<MetricDTO> merged = cache.merge(KEY, List.of(series("s", 60, 2.5)), 60, 0, 60);
+
+        assertThat(merged).extracting(MetricDTO::getSeriesName).containsExactly("s");
+        assertThat(values(merged.get(0))).containsExactly(1.0, 2.5);
+        assertThat(cache.getStats()).containsEntry("points", 2L);
+    }
+
+    @Test
+    void lastEndReportsCoverage() {
+        RangeSeriesCache cache = new RangeSeriesCache(1000);
+        assertThat(cache.lastEnd(KEY, 0, 60)).isNull();
+
+        cache.merge(KEY, List.of(series("s", 0, 1.0)), 0, 0, 60);
+
+        assertThat(cache.lastEnd(KEY, 0, 120)).isEqualTo(60L);
+    }
+
+    @Test
+    void emptyFetchKeepsCachedPointsAndCoverage() {
+        RangeSeriesCache cache = new RangeSeriesCache(1000);
+        cache.merge(KEY, List.of(series("s", 0, 1.0, 60, 2.0, 120, 3.0)), 0, 0, 120);
+
+        // 꼬리 구간 조회가 빈 결과로 끝남: 기존 값은 남고 구간 끝도 그대로 (다음 요청에서 다시 조회)
+        List<MetricDTO> merged = cache.merge(KEY, List.of(), 60, 0, 180);
+
+        assertThat(values(merged.get(0))).containsExactly(1.0, 2.0, 3.0);
+        assertThat(cache.getStats()).containsEntry("points", 3L);
+        assertThat(cache.lastEnd(KEY, 0, 180)).isEqualTo(120L);
+    }
+
+    @Test
+    void emptyFetchWithoutEntryCreatesNothing() {
+        RangeSeriesCache cache = new RangeSeriesCache(1000);
+
+        assertThat(cache.merge(KEY, List.of(), 0, 0, 60)).isEmpty();
+        assertThat(cache.lastEnd(KEY, 0, 60)).isNull();
+        assertThat(cache.getStats()).containsEntry("entries", 0);
+    }
+
+    // (ts, value) 쌍
+    private static MetricDTO series(String name, double... tsValues) {
+        List<DataPointDTO> points = new ArrayList<>();
+        for (int i = 0; i < tsValues.length; i += 2) {
+            points.add(new DataPointDTO(Instant.ofEpochSecond((long) tsValues[i]), tsValues[i + 1]));
+        }
+        return new MetricDTO(name, points);
+    }
+
+    private static List<Double> values(MetricDTO metric) {
+        return metric.getDataPoints().stream().map(DataPointDTO::getValue).toList();
+    }
+}
@@ -0,0 +1,91 @@
+package com.kopo.vita.prometheus.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kopo.vita.prometheus.dto.ClusterMetricsDTO;
+import com.kopo.vita.prometheus.dto.PodDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PodStatePushServiceTest {
+
+    private final PodStatePushService service = new PodStatePushService(new ObjectMapper(), 0.01, 3_600_000, 3_600_000);
+
+    @Test
+    void smallClusterDriftDoesNotProduceDelta() {
+        service.publish(null, cluster(10.0, 3));
+        List<ServerSentEvent<String>> events = new ArrayList<>();
+        Disposable subscription = service.subscribe(null).subscribe(events::add);
+
+        service.publish(null, cluster(10.05, 3));   // 0.5% 변화
+        service.publish(null, cluster(10.08, 3));   // 알린 값 대비 0.8%
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("full");
+
+        service.publish(null, cluster(10.08, 4));   // 개수는 값이 다르면 항상
+        service.publish(null, cluster(11.0, 4));    // 10% 변화
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("full", "delta", "delta");
+        assertThat(events.get(1).data()).contains("\"podRunningCount\":4").doesNotContain("nodeCpuCapacity");
+        assertThat(events.get(2).data()).contains("nodeCpuCapacity").contains("node-a");
+        subscription.dispose();
+    }
+
+    @Test
+    void podDeltaCarriesOnlyChangedFields() {
+        service.publish(List.of(pod("a", 1.0, "Running")), null);
+        List<ServerSentEvent<String>> events = new ArrayList<>();
+        Disposable subscription = service.subscribe(null).subscribe(events::add);
+
+        service.publish(List.of(pod("a", 1.001, "Running")), null);
+        service.publish(List.of(pod("a", 1.001, "Failed"), pod("b", 0, "Running")), null);
+
+        assertThat(events).hasSize(2);
+        String delta = events.get(1).data();
+        assertThat(delta).contains("\"status\":\"Failed\"").contains("\"cpu\":1.001").contains("\"added\"");
+        subscription.dispose();
+    }
+
+    @Test
+    void resumeAtCurrentVersionSkipsFullState() {
+        service.publish(List.of(pod("a", 1.0, "Running")), null);
+        List<ServerSentEvent<String>> events = new ArrayList<>();
+        Disposable subscription = service.subscribe(1L).subscribe(events::add);
+
+        assertThat(events).isEmpty();
+
+        service.publish(List.of(pod("a", 1.0, "Failed")), null);
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("delta");
+        subscription.dispose();
+    }
+
+    @Test
+    void streamCompletesAfterMaxDuration() {
+        PodStatePushService shortLived = new PodStatePushService(new ObjectMapper(), 0.01, 3_600_000, 200);
+        shortLived.publish(List.of(pod("a", 1.0, "Running")), null);
+
+        List<ServerSentEvent<String>> events = shortLived.subscribe(null).collectList().block(Duration.ofSeconds(5));
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("full");
+    }
+
+    private static ClusterMetricsDTO cluster(double cpu, long running) {
+        return ClusterMetricsDTO.builder()
+                .nodeCpuCapacity(cpu)
+                .nodeCpuUsage(Map.of("node-a", cpu / 2))
+                .podRunningCount(running)
+                .build();
+    }
+
+    private static PodDTO pod(String name, double cpu, String status) {
+        return PodDTO.builder().nameSpace("default").podName(name).cpu(cpu).status(status).build();
+    }
+}
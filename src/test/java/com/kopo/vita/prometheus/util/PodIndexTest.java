@@ -0,0 +1,64 @@
+package com.kopo.vita.prometheus.util;
+
+import com.kopo.vita.prometheus.dto.PodDTO;
+import com.kopo.vita.prometheus.dto.PodPageDTO;
+import com.kopo.vita.prometheus.dto.PodQueryDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PodIndexTest {
+
+    private static PodDTO pod(String ns, String name, String node, double cpu) {
+        return PodDTO.builder().nameSpace(ns).podName(name).nodeName(node).status("Running").cpu(cpu).build();
+    }
+
+    private static List<String> names(PodPageDTO page) {
+        return page.getItems().stream().map(PodDTO::getPodName).toList();
+    }
+
+    private final PodIndex index = new PodIndex(List.of(
+            pod("a", "a-1", "n1", 0.5),
+            pod("b", "b-1", "n1", 0.9),
+            pod("a", "a-2", "n2", 0.9),
+            pod("a", "a-3", "n1", 0.1),
+            pod("b", "b-2", "n2", 0.7),
+            pod("a", "a-4", "n1", 0.7)
+    ));
+
+    @Test
+    void filterWithSortPagesThroughSortedOrder() {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            PodPageDTO page = index.query(PodQueryDTO.builder()
+                    .namespace("a").sort("cpu").limit(2).cursor(cursor).build());
+            seen.addAll(names(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // 값이 같으면 (namespace, podName) 순
+        assertThat(seen).containsExactly("a-2", "a-4", "a-1", "a-3");
+    }
+
+    @Test
+    void combinedFiltersAscending() {
+        PodPageDTO page = index.query(PodQueryDTO.builder()
+                .namespace("a").node("n1").sort("cpu").order("asc").build());
+
+        assertThat(names(page)).containsExactly("a-3", "a-1", "a-4");
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void noCursorWhenNoMoreMatchesRemain() {
+        PodPageDTO page = index.query(PodQueryDTO.builder()
+                .namespace("b").sort("cpu").limit(2).build());
+
+        assertThat(names(page)).containsExactly("b-1", "b-2");
+        assertThat(page.getNextCursor()).isNull();
+    }
+}
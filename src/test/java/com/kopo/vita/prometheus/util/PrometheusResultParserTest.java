@@ -0,0 +1,111 @@
+package com.kopo.vita.prometheus.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kopo.vita.prometheus.dto.PodDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PrometheusResultParserTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void readsVectorSamplesRegardlessOfFieldOrder() {
+        String json = """
+                {"status":"success","data":{"resultType":"vector","result":[
+                  {"metric":{"node":"a"},"value":[1700000000,"1.5"]},
+                  {"value":[1700000000,"NaN"],"metric":{"node":"b"}},
+                  {"metric":{"node":"c"},"value":[1700000000,"+Inf"]}
+                ]}}""";
+
+        Map<String, Double> result = PrometheusResultParser.extractNodeMetric(in(json), mapper);
+
+        assertThat(result).containsEntry("a", 1.5).containsEntry("c", Double.POSITIVE_INFINITY);
+        assertThat(result.get("b")).isNaN();
+    }
+
+    @Test
+    void readsMatrixSeriesWithAllPoints() throws Exception {
+        String json = """
+                {"data":{"resultType":"matrix","result":[
+                  {"metric":{"__name__":"up"},"values":[[60,"1"],[120,"0"],[180,"1"]]}
+                ]},"status":"success"}""";
+        List<double[]> series = new ArrayList<>();
+
+        PrometheusResultParser.readSeries(in(json), mapper, (labels, samples, size) -> {
+            assertThat(labels).containsEntry("__name__", "up");
+            series.add(java.util.Arrays.copyOf(samples, size));
+        });
+
+        assertThat(series).hasSize(1);
+        assertThat(series.get(0)).containsExactly(60, 1, 120, 0, 180, 1);
+    }
+
+    @Test
+    void unparseableValueIsMissingNotZero() {
+        assertThat(PrometheusResultParser.parseValue("abc")).isNaN();
+        assertThat(PrometheusResultParser.parseValue(null)).isNaN();
+        assertThat(PrometheusResultParser.parseValue("-Inf")).isEqualTo(Double.NEGATIVE_INFINITY);
+    }
+
+    @Test
+    void malformedResponsePropagates() {
+        String truncated = "{\"data\":{\"result\":[{\"metric\":{\"pod\":\"p\"},\"value\":[1,\"2\"";
+        PodMetricTable table = new PodMetricTable();
+
+        assertThatThrownBy(() -> PrometheusResultParser.readPodInfo(in(truncated), mapper, table))
+                .isInstanceOf(UncheckedIOException.class);
+        assertThatThrownBy(() -> PrometheusResultParser.extractSingleValueAsLong(in("{\"data\":"), mapper))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    void emptyResultIsZero() {
+        String json = "{\"data\":{\"result\":[]}}";
+        assertThat(PrometheusResultParser.extractSingleValueAsLong(in(json), mapper)).isZero();
+    }
+
+    @Test
+    void joinsPodColumnsThroughTable() {
+        String info = """
+                {"data":{"result":[
+                  {"metric":{"namespace":"ns","pod":"p1","uid":"u1","node":"n1"},"value":[1,"1"]},
+                  {"metric":{"namespace":"ns","pod":"p2","uid":"u2","node":"n1"},"value":[1,"1"]}
+                ]}}""";
+        String cpu = """
+                {"data":{"result":[
+                  {"metric":{"namespace":"ns","pod":"p2"},"value":[1,"0.25"]},
+                  {"metric":{"namespace":"ns","pod":"unknown"},"value":[1,"9"]}
+                ]}}""";
+        String phase = """
+                {"data":{"result":[
+                  {"metric":{"namespace":"ns","pod":"p1","phase":"Running"},"value":[1,"1"]},
+                  {"metric":{"namespace":"ns","pod":"p2","phase":"Pending"},"value":[1,"1"]},
+                  {"metric":{"namespace":"ns","pod":"p2","phase":"Running"},"value":[1,"0"]}
+                ]}}""";
+        PodMetricTable table = new PodMetricTable();
+
+        PrometheusResultParser.readPodInfo(in(info), mapper, table);
+        PrometheusResultParser.readPodColumn(in(cpu), mapper, table, PodMetricTable.CPU);
+        PrometheusResultParser.readPodPhase(in(phase), mapper, table);
+        List<PodDTO> pods = table.toPodDTOList();
+
+        assertThat(pods).extracting(PodDTO::getPodName).containsExactly("p1", "p2");
+        assertThat(pods.get(1).getCpu()).isEqualTo(0.25);
+        assertThat(pods).extracting(PodDTO::getStatus).containsExactly("Running", "Pending");
+    }
+
+    private static InputStream in(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}